@@ -0,0 +1,127 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.Balance;
+import io.conjuror.component.journal.data.Account;
+import io.conjuror.component.journal.data.Currency;
+import io.conjuror.component.journal.repository.AccountRepository;
+import io.conjuror.component.journal.repository.CurrencyRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountServiceBenchmark {
+
+  private static final int BATCH_SIZE = 10000;
+
+  @Param({"1000", "100000"})
+  private int accountCount;
+
+  private ConfigurableApplicationContext context;
+  private AccountService accountService;
+  private String[] accountNumbers;
+
+  public AccountServiceBenchmark() {
+    super();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.context = BenchmarkContext.start("io.conjuror.base-currency=EUR");
+    this.accountService = this.context.getBean(AccountService.class);
+
+    final CurrencyRepository currencyRepository = this.context.getBean(CurrencyRepository.class);
+    currencyRepository.save(this.currency("EUR", BigDecimal.ONE));
+    currencyRepository.save(this.currency("USD", BigDecimal.valueOf(1.1875D)));
+    this.context.getBean(ExchangeService.class).invalidate();
+
+    final AccountRepository accountRepository = this.context.getBean(AccountRepository.class);
+    final LocalDate pendingDate = LocalDate.now().plusYears(1L);
+    this.accountNumbers = new String[this.accountCount];
+    final List<Account> batch = new ArrayList<>(BATCH_SIZE);
+    for (int index = 0; index < this.accountCount; index++) {
+      this.accountNumbers[index] = String.format("benchmark-%09d", index);
+
+      final Account account = new Account();
+      account.setNumber(this.accountNumbers[index]);
+      account.setBalances(new HashMap<>(Map.of(
+          "EUR", BigDecimal.valueOf(index, 2),
+          "USD", BigDecimal.valueOf(index * 3L, 2)
+      )));
+      account.setPendingBalances(new HashMap<>(Map.of(
+          pendingDate, new HashMap<>(Map.of("EUR", BigDecimal.ONE))
+      )));
+      account.setLastSynchronizedSequence((long) index);
+      batch.add(account);
+
+      if (batch.size() == BATCH_SIZE) {
+        accountRepository.saveAll(batch);
+        batch.clear();
+      }
+    }
+    accountRepository.saveAll(batch);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public Balance determineBalance() {
+    final String accountNumber = this.accountNumbers[ThreadLocalRandom.current().nextInt(this.accountCount)];
+    return this.accountService.determineBalance(accountNumber, "EUR");
+  }
+
+  private Currency currency(final String code, final BigDecimal rate) {
+    final Currency currency = new Currency();
+    currency.setCode(code);
+    currency.setRate(rate);
+    currency.setPrecision(2);
+    return currency;
+  }
+}
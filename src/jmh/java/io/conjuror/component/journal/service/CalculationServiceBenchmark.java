@@ -0,0 +1,161 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.CalculationResponse;
+import io.conjuror.component.journal.data.AdHocFee;
+import io.conjuror.component.journal.data.EventFee;
+import io.conjuror.component.journal.data.PercentageFee;
+import io.conjuror.component.journal.data.PriceComponent;
+import io.conjuror.component.journal.data.PriceComponent.Period;
+import io.conjuror.component.journal.data.PriceComponent.Type;
+import io.conjuror.component.journal.data.RecurringFee;
+import io.conjuror.component.journal.repository.AdHocFeeRepository;
+import io.conjuror.component.journal.repository.EventFeeRepository;
+import io.conjuror.component.journal.repository.PercentageFeeRepository;
+import io.conjuror.component.journal.repository.PriceComponentRepository;
+import io.conjuror.component.journal.repository.RecurringFeeRepository;
+import io.conjuror.component.journal.request.CalculationRequest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalculationServiceBenchmark {
+
+  private static final String CREATED_BY = "benchmark";
+
+  @Param({"AD_HOC", "EVENT", "RECURRING", "PERCENTAGE"})
+  private Type type;
+
+  private ConfigurableApplicationContext context;
+  private CalculationService calculationService;
+  private CalculationRequest calculationRequest;
+
+  public CalculationServiceBenchmark() {
+    super();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.context = BenchmarkContext.start();
+    this.calculationService = this.context.getBean(CalculationService.class);
+    final SnowflakeService snowflakeService = this.context.getBean(SnowflakeService.class);
+    final LocalDateTime validFrom = LocalDateTime.now().minusDays(1L);
+
+    final PriceComponent priceComponent = new PriceComponent();
+    priceComponent.setType(this.type);
+    priceComponent.setPeriod(Period.MONTH);
+    priceComponent.setCode("benchmark-" + this.type.name().toLowerCase());
+    priceComponent.setName(this.type.name());
+    priceComponent.setControlAccount("control-account");
+    priceComponent.setCreatedAt(validFrom);
+    priceComponent.setCreatedBy(CREATED_BY);
+    this.context.getBean(PriceComponentRepository.class).save(priceComponent);
+
+    BigDecimal underlying = null;
+    switch (this.type) {
+      case AD_HOC:
+        final AdHocFee adHocFee = new AdHocFee();
+        adHocFee.setIdentifier(snowflakeService.next());
+        adHocFee.setPriceComponentCode(priceComponent.getCode());
+        adHocFee.setAmount(BigDecimal.TEN);
+        adHocFee.setWorkUnit(Boolean.TRUE);
+        adHocFee.setValidFrom(validFrom);
+        adHocFee.setCreatedAt(validFrom);
+        adHocFee.setCreatedBy(CREATED_BY);
+        this.context.getBean(AdHocFeeRepository.class).save(adHocFee);
+        underlying = BigDecimal.valueOf(5L);
+        break;
+      case EVENT:
+        final EventFee eventFee = new EventFee();
+        eventFee.setIdentifier(snowflakeService.next());
+        eventFee.setPriceComponentCode(priceComponent.getCode());
+        eventFee.setAmount(BigDecimal.valueOf(5L));
+        eventFee.setMinimalValue(BigDecimal.TEN);
+        eventFee.setValidFrom(validFrom);
+        eventFee.setCreatedAt(validFrom);
+        eventFee.setCreatedBy(CREATED_BY);
+        this.context.getBean(EventFeeRepository.class).save(eventFee);
+        underlying = BigDecimal.valueOf(1000L);
+        break;
+      case RECURRING:
+        final RecurringFee recurringFee = new RecurringFee();
+        recurringFee.setIdentifier(snowflakeService.next());
+        recurringFee.setPriceComponentCode(priceComponent.getCode());
+        recurringFee.setAmount(BigDecimal.valueOf(995L, 2));
+        recurringFee.setValidFrom(validFrom);
+        recurringFee.setCreatedAt(validFrom);
+        recurringFee.setCreatedBy(CREATED_BY);
+        this.context.getBean(RecurringFeeRepository.class).save(recurringFee);
+        break;
+      case PERCENTAGE:
+        final PercentageFee percentageFee = new PercentageFee();
+        percentageFee.setIdentifier(snowflakeService.next());
+        percentageFee.setPriceComponentCode(priceComponent.getCode());
+        percentageFee.setAmount(BigDecimal.valueOf(5L, 1).negate());
+        percentageFee.setValidFrom(validFrom);
+        percentageFee.setCreatedAt(validFrom);
+        percentageFee.setCreatedBy(CREATED_BY);
+        this.context.getBean(PercentageFeeRepository.class).save(percentageFee);
+        underlying = BigDecimal.valueOf(360000L).negate();
+        break;
+      default:
+        throw new IllegalStateException(String.format("Unsupported price component type '%s'.", this.type));
+    }
+
+    final CalculationRequest.Builder builder =
+        CalculationRequest.create("agreement", priceComponent.getCode(), LocalDateTime.now());
+    if (underlying != null) {
+      builder.underlying(underlying);
+    }
+    this.calculationRequest = builder.build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public CalculationResponse process() {
+    return this.calculationService.process(this.calculationRequest);
+  }
+}
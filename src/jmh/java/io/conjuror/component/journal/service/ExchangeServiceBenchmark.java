@@ -0,0 +1,106 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.data.Currency;
+import io.conjuror.component.journal.repository.CurrencyRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExchangeServiceBenchmark {
+
+  private ConfigurableApplicationContext context;
+  private ExchangeService exchangeService;
+  private BigDecimal amount;
+
+  public ExchangeServiceBenchmark() {
+    super();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.context = BenchmarkContext.start("io.conjuror.base-currency=EUR");
+    this.context.getBean(CurrencyRepository.class).saveAll(
+        List.of(
+            this.currency("EUR", BigDecimal.ONE, 2),
+            this.currency("USD", BigDecimal.valueOf(1.1875D), 2),
+            this.currency("JPY", BigDecimal.valueOf(131.62D), 0),
+            this.currency("CHF", BigDecimal.valueOf(1.0954D), 2)
+        )
+    );
+    this.exchangeService = this.context.getBean(ExchangeService.class);
+    this.exchangeService.invalidate();
+    this.amount = BigDecimal.valueOf(123456789L, 2);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public BigDecimal sameCurrency() {
+    return this.exchangeService.estimateAmount(this.amount, "EUR", "EUR");
+  }
+
+  @Benchmark
+  public BigDecimal fromBaseCurrency() {
+    return this.exchangeService.estimateAmount(this.amount, "EUR", "USD");
+  }
+
+  @Benchmark
+  public BigDecimal crossRate() {
+    return this.exchangeService.estimateAmount(this.amount, "USD", "JPY");
+  }
+
+  @Benchmark
+  public BigDecimal unknownCurrency() {
+    return this.exchangeService.estimateAmount(this.amount, "XAU", "USD");
+  }
+
+  private Currency currency(final String code, final BigDecimal rate, final int precision) {
+    final Currency currency = new Currency();
+    currency.setCode(code);
+    currency.setRate(rate);
+    currency.setPrecision(precision);
+    return currency;
+  }
+}
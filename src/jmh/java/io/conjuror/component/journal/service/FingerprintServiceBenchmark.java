@@ -0,0 +1,110 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.data.JournalItem.Allocation;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FingerprintServiceBenchmark {
+
+  @Param({"1", "10", "100", "1000"})
+  private int itemCount;
+
+  private FingerprintService fingerprintService;
+  private Journal journal;
+  private List<JournalItem> journalItems;
+
+  public FingerprintServiceBenchmark() {
+    super();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.fingerprintService = new FingerprintService(null, null);
+
+    this.journal = new Journal();
+    this.journal.setSequence(1L);
+    this.journal.setIdentifier("benchmark");
+    this.journal.setCurrencyCode("EUR");
+    this.journal.setDescription("Benchmark journal");
+    this.journal.setValueDate(LocalDate.of(2021, 6, 30));
+    this.journal.setBookingDate(LocalDate.of(2021, 6, 30));
+    this.journal.setCreatedAt(LocalDateTime.of(2021, 6, 30, 12, 0));
+    this.journal.setCreatedBy("benchmark");
+
+    this.journalItems = new ArrayList<>(this.itemCount);
+    for (int index = 0; index < this.itemCount; index++) {
+      final BigDecimal amount = BigDecimal.valueOf(index + 1L, 2);
+
+      final Allocation source = new Allocation();
+      source.setAccountReference("source-" + index);
+      source.setAmount(amount);
+
+      final Allocation target = new Allocation();
+      target.setAccountReference("target-" + index);
+      target.setAmount(amount);
+
+      final JournalItem journalItem = new JournalItem();
+      journalItem.setSequence(index + 2L);
+      journalItem.setJournalSequence(this.journal.getSequence());
+      journalItem.setIdentifier("item-" + index);
+      journalItem.setSource(source);
+      journalItem.setTargets(List.of(target));
+      journalItem.setPurpose("Benchmark item");
+      this.journalItems.add(journalItem);
+    }
+  }
+
+  @Benchmark
+  public String buildData() {
+    return this.fingerprintService.buildData(this.journal, this.journalItems);
+  }
+
+  @Benchmark
+  public String generate() throws Exception {
+    return this.fingerprintService.generate(this.journal, this.journalItems);
+  }
+}
@@ -26,12 +26,36 @@
  */
 package io.conjuror.component.journal;
 
+import io.conjuror.component.journal.data.DeflateCompressor;
+import io.conjuror.component.journal.data.JournalPartitionResolver;
+import io.conjuror.component.journal.function.BalanceFunction;
+import io.conjuror.component.journal.function.JournalItemsFunction;
+import io.conjuror.component.journal.service.CurrencyInvalidationListener;
+import io.conjuror.component.journal.service.ExchangeService;
+import io.conjuror.component.journal.service.FeeScheduleInvalidationListener;
+import io.conjuror.component.journal.service.FeeScheduleService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.geode.cache.CacheListener;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.execute.FunctionService;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.gemfire.PeerRegionFactoryBean;
+import org.springframework.data.gemfire.RegionAttributesFactoryBean;
+import org.springframework.data.gemfire.client.ClientRegionFactoryBean;
 import org.springframework.data.gemfire.config.annotation.EnableEntityDefinedRegions;
 import org.springframework.data.gemfire.config.annotation.EnableIndexing;
+import org.springframework.data.gemfire.config.annotation.RegionConfigurer;
 import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
 import org.springframework.geode.config.annotation.EnableClusterAware;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @ComponentScan(
@@ -52,11 +76,124 @@ import org.springframework.geode.config.annotation.EnableClusterAware;
     }
 )
 @EnableIndexing
+@EnableScheduling
 public class JournalConfiguration {
 
   public static final String LOGGER_NAME = "io.conjuror.component.journal";
 
+  private static final Set<String> FEE_REGIONS =
+      Set.of("price_components", "event_fees", "ad_hoc_fees", "recurring_fees", "percentage_fees");
+
+  private static final Map<String, String> PARTITIONED_REGIONS =
+      Map.of(
+          "journals", "",
+          "items", "journals",
+          "documents", "items",
+          "document_blobs", "",
+          "document_chunks", ""
+      );
+
+  private static final String DOCUMENT_CHUNK_REGION = "document_chunks";
+
+  private static final String CURRENCY_REGION = "currencies";
+
   public JournalConfiguration() {
     super();
   }
+
+  @Bean
+  public InitializingBean journalFunctionRegistrar() {
+    return () -> List.of(new BalanceFunction(), new JournalItemsFunction()).forEach(FunctionService::registerFunction);
+  }
+
+  @Bean
+  public RegionConfigurer feeRegionConfigurer(final ObjectProvider<FeeScheduleService> feeScheduleServiceProvider) {
+    final FeeScheduleInvalidationListener listener = new FeeScheduleInvalidationListener(feeScheduleServiceProvider);
+    return new RegionConfigurer() {
+      @Override
+      public void configure(final String beanName, final ClientRegionFactoryBean<?, ?> bean) {
+        if (FEE_REGIONS.contains(beanName)) {
+          bean.setCacheListeners(new CacheListener[]{listener});
+        }
+      }
+
+      @Override
+      public void configure(final String beanName, final PeerRegionFactoryBean<?, ?> bean) {
+        if (FEE_REGIONS.contains(beanName)) {
+          bean.setCacheListeners(new CacheListener[]{listener});
+        }
+      }
+    };
+  }
+
+  @Bean
+  public RegionConfigurer currencyRegionConfigurer(final ObjectProvider<ExchangeService> exchangeServiceProvider) {
+    final CurrencyInvalidationListener listener = new CurrencyInvalidationListener(exchangeServiceProvider);
+    return new RegionConfigurer() {
+      @Override
+      public void configure(final String beanName, final ClientRegionFactoryBean<?, ?> bean) {
+        if (CURRENCY_REGION.equals(beanName)) {
+          bean.setCacheListeners(new CacheListener[]{listener});
+        }
+      }
+
+      @Override
+      public void configure(final String beanName, final PeerRegionFactoryBean<?, ?> bean) {
+        if (CURRENCY_REGION.equals(beanName)) {
+          bean.setCacheListeners(new CacheListener[]{listener});
+        }
+      }
+    };
+  }
+
+  @Bean
+  public RegionConfigurer partitionRegionConfigurer(
+      @Value("${io.conjuror.partitioning.redundant-copies:1}") final Integer redundantCopies,
+      @Value("${io.conjuror.partitioning.total-buckets:113}") final Integer totalBuckets) {
+    final JournalPartitionResolver partitionResolver = new JournalPartitionResolver();
+    return new RegionConfigurer() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public void configure(final String beanName, final PeerRegionFactoryBean<?, ?> bean) {
+        final String colocatedWith = PARTITIONED_REGIONS.get(beanName);
+        if (colocatedWith == null) {
+          return;
+        }
+
+        final PartitionAttributesFactory<Long, Object> partitionAttributesFactory =
+            new PartitionAttributesFactory<>();
+        partitionAttributesFactory.setRedundantCopies(redundantCopies);
+        partitionAttributesFactory.setTotalNumBuckets(totalBuckets);
+        partitionAttributesFactory.setPartitionResolver(partitionResolver);
+        if (!colocatedWith.isEmpty()) {
+          partitionAttributesFactory.setColocatedWith(colocatedWith);
+        }
+
+        final RegionAttributesFactoryBean<Long, Object> attributesFactoryBean = new RegionAttributesFactoryBean<>();
+        attributesFactoryBean.setDataPolicy(DataPolicy.PERSISTENT_PARTITION);
+        attributesFactoryBean.setPartitionAttributes(partitionAttributesFactory.create());
+        attributesFactoryBean.afterPropertiesSet();
+
+        ((PeerRegionFactoryBean<Long, Object>) bean).setAttributes(attributesFactoryBean.getObject());
+        bean.setDataPolicy(DataPolicy.PERSISTENT_PARTITION);
+      }
+    };
+  }
+
+  @Bean
+  public RegionConfigurer documentChunkRegionConfigurer(
+      @Value("${io.conjuror.documents.off-heap:false}") final Boolean offHeap,
+      @Value("${io.conjuror.documents.compression:true}") final Boolean compression) {
+    return new RegionConfigurer() {
+      @Override
+      public void configure(final String beanName, final PeerRegionFactoryBean<?, ?> bean) {
+        if (DOCUMENT_CHUNK_REGION.equals(beanName)) {
+          bean.setOffHeap(offHeap);
+          if (compression) {
+            bean.setCompressor(new DeflateCompressor());
+          }
+        }
+      }
+    };
+  }
 }
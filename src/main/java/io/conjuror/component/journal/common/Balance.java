@@ -39,4 +39,5 @@ public class Balance {
   private String currencyCode;
   private BigDecimal accountBalance;
   private BigDecimal reportingBalance;
+  private Long lastSynchronizedSequence;
 }
@@ -0,0 +1,109 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.common;
+
+import io.conjuror.component.journal.data.Fee;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class FeeSchedule<T extends Fee> {
+
+  private final Map<String, Timeline<T>> agreementFees;
+  private final Timeline<T> defaultFees;
+
+  private FeeSchedule(final Collection<T> fees) {
+    super();
+    final Map<String, List<T>> feesByAgreement = new HashMap<>();
+    final List<T> defaults = new ArrayList<>();
+    fees.forEach(fee -> {
+      if (fee.getAgreementNumber() == null) {
+        defaults.add(fee);
+      } else {
+        feesByAgreement
+            .computeIfAbsent(fee.getAgreementNumber(), agreementNumber -> new ArrayList<>())
+            .add(fee);
+      }
+    });
+
+    this.agreementFees = new HashMap<>(feesByAgreement.size() * 2);
+    feesByAgreement.forEach((agreementNumber, agreementFees) ->
+        this.agreementFees.put(agreementNumber, new Timeline<>(agreementFees)));
+    this.defaultFees = new Timeline<>(defaults);
+  }
+
+  public static <T extends Fee> FeeSchedule<T> of(final Collection<T> fees) {
+    return new FeeSchedule<>(fees);
+  }
+
+  public Optional<T> resolve(final String agreementNumber, final LocalDateTime referenceDate) {
+    final Timeline<T> timeline = this.agreementFees.get(agreementNumber);
+    if (timeline != null) {
+      final T agreementFee = timeline.floor(referenceDate);
+      if (agreementFee != null) {
+        return Optional.of(agreementFee);
+      }
+    }
+    return Optional.ofNullable(this.defaultFees.floor(referenceDate));
+  }
+
+  private static final class Timeline<T extends Fee> {
+    private final LocalDateTime[] validFroms;
+    private final Object[] fees;
+
+    private Timeline(final List<T> fees) {
+      fees.sort(Comparator.comparing(Fee::getValidFrom));
+      final LocalDateTime[] validFroms = new LocalDateTime[fees.size()];
+      final Object[] sortedFees = new Object[fees.size()];
+      int size = 0;
+      for (final T fee : fees) {
+        if (size > 0 && validFroms[size - 1].equals(fee.getValidFrom())) {
+          sortedFees[size - 1] = fee;
+        } else {
+          validFroms[size] = fee.getValidFrom();
+          sortedFees[size] = fee;
+          size++;
+        }
+      }
+      this.validFroms = Arrays.copyOf(validFroms, size);
+      this.fees = Arrays.copyOf(sortedFees, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T floor(final LocalDateTime referenceDate) {
+      final int index = Arrays.binarySearch(this.validFroms, referenceDate);
+      final int floorIndex = index >= 0 ? index : -index - 2;
+      return floorIndex >= 0 ? (T) this.fees[floorIndex] : null;
+    }
+  }
+}
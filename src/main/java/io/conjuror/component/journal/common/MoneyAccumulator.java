@@ -0,0 +1,121 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.common;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class MoneyAccumulator {
+
+  private static final int MAX_COMPACT_DIGITS = 18;
+  private static final long[] POWERS_OF_TEN = new long[MAX_COMPACT_DIGITS + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1L;
+    for (int index = 1; index < POWERS_OF_TEN.length; index++) {
+      POWERS_OF_TEN[index] = POWERS_OF_TEN[index - 1] * 10L;
+    }
+  }
+
+  private long units;
+  private int scale;
+  private BigDecimal overflow;
+
+  public MoneyAccumulator() {
+    this(0);
+  }
+
+  public MoneyAccumulator(final int scale) {
+    super();
+    this.scale = Math.max(0, Math.min(scale, MAX_COMPACT_DIGITS));
+  }
+
+  public static Map<String, MoneyAccumulator> of(final Map<String, BigDecimal> amounts) {
+    final Map<String, MoneyAccumulator> accumulators = new HashMap<>();
+    if (amounts != null) {
+      amounts.forEach((currencyCode, amount) -> accumulators.put(currencyCode, new MoneyAccumulator().add(amount)));
+    }
+    return accumulators;
+  }
+
+  public static Map<String, BigDecimal> toBigDecimals(final Map<String, MoneyAccumulator> accumulators) {
+    final Map<String, BigDecimal> amounts = new HashMap<>();
+    accumulators.forEach((currencyCode, accumulator) -> amounts.put(currencyCode, accumulator.toBigDecimal()));
+    return amounts;
+  }
+
+  public MoneyAccumulator add(final BigDecimal amount) {
+    return this.accumulate(amount, false);
+  }
+
+  public MoneyAccumulator subtract(final BigDecimal amount) {
+    return this.accumulate(amount, true);
+  }
+
+  public boolean isCompact() {
+    return this.overflow == null;
+  }
+
+  public BigDecimal toBigDecimal() {
+    if (this.overflow != null) {
+      return this.overflow;
+    }
+    return BigDecimal.valueOf(this.units, this.scale);
+  }
+
+  private MoneyAccumulator accumulate(final BigDecimal amount, final boolean negate) {
+    if (this.overflow == null && this.accumulateCompact(amount, negate)) {
+      return this;
+    }
+
+    final BigDecimal current = this.toBigDecimal();
+    this.overflow = negate ? current.subtract(amount) : current.add(amount);
+    return this;
+  }
+
+  private boolean accumulateCompact(final BigDecimal amount, final boolean negate) {
+    final int amountScale = amount.scale();
+    if (amountScale < 0 || amountScale > MAX_COMPACT_DIGITS || amount.precision() > MAX_COMPACT_DIGITS) {
+      return false;
+    }
+
+    try {
+      if (amountScale > this.scale) {
+        this.units = Math.multiplyExact(this.units, POWERS_OF_TEN[amountScale - this.scale]);
+        this.scale = amountScale;
+      }
+
+      final long amountUnits = amountScale == 0 ? amount.longValue() : amount.unscaledValue().longValue();
+      final long scaledUnits = Math.multiplyExact(amountUnits, POWERS_OF_TEN[this.scale - amountScale]);
+      this.units = negate ? Math.subtractExact(this.units, scaledUnits) : Math.addExact(this.units, scaledUnits);
+      return true;
+    } catch (final ArithmeticException aex) {
+      return false;
+    }
+  }
+}
@@ -27,6 +27,9 @@
 package io.conjuror.component.journal.data;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -34,6 +37,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
 
 @NoArgsConstructor
+@EqualsAndHashCode
 @Getter
 @Setter
 @ReplicateRegion(
@@ -44,6 +48,7 @@ public class Account {
 
   @Id
   private String number;
-  private BigDecimal balance;
+  private Map<String, BigDecimal> balances;
+  private Map<LocalDate, Map<String, BigDecimal>> pendingBalances;
   private Long lastSynchronizedSequence;
 }
@@ -42,7 +42,7 @@ import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
     name = "ad_hoc_fees",
     persistent = true
 )
-public class AdHocFee {
+public class AdHocFee implements Fee {
   @Id
   private Long identifier;
   @Indexed
@@ -30,20 +30,25 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
+import org.springframework.data.gemfire.mapping.annotation.Indexed;
+import org.springframework.data.gemfire.mapping.annotation.PartitionRegion;
 
 @NoArgsConstructor
 @Getter
 @Setter
-@ReplicateRegion(
+@PartitionRegion(
     name = "documents",
-    persistent = true
+    persistent = true,
+    colocatedWith = "items"
 )
 public class Document {
   @Id
   private Long sequence;
+  private Long journalSequence;
+  @Indexed
   private Long journalItemSequence;
   private String mimeType;
   private Long bytes;
+  private String contentHash;
   private String content;
 }
@@ -42,7 +42,7 @@ import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
     name = "event_fees",
     persistent = true
 )
-public class EventFee {
+public class EventFee implements Fee {
   @Id
   private Long identifier;
   @Indexed
@@ -28,17 +28,20 @@ package io.conjuror.component.journal.data;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.gemfire.mapping.annotation.Indexed;
-import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
+import org.springframework.data.gemfire.mapping.annotation.PartitionRegion;
 
 @NoArgsConstructor
+@EqualsAndHashCode
 @Getter
 @Setter
-@ReplicateRegion(
+@PartitionRegion(
     name = "journals",
     persistent = true
 )
@@ -52,6 +55,7 @@ public class Journal {
   }
 
   @Id
+  @Indexed
   private Long sequence;
   @Indexed
   private String identifier;
@@ -65,4 +69,7 @@ public class Journal {
   private LocalDateTime releasedAt;
   private String releasedBy;
   private String fingerPrint;
+  private Long itemCount;
+  private List<String> merkleFrontier;
+  private String merkleRoot;
 }
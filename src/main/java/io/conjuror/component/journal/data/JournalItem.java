@@ -33,14 +33,15 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.gemfire.mapping.annotation.Indexed;
-import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
+import org.springframework.data.gemfire.mapping.annotation.PartitionRegion;
 
 @NoArgsConstructor
 @Getter
 @Setter
-@ReplicateRegion(
+@PartitionRegion(
     name = "items",
-    persistent = true
+    persistent = true,
+    colocatedWith = "journals"
 )
 public class JournalItem {
 
@@ -64,4 +65,6 @@ public class JournalItem {
   private Allocation source;
   private List<Allocation> targets;
   private String purpose;
+  private Long position;
+  private String leafHash;
 }
@@ -0,0 +1,66 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.data;
+
+import org.apache.geode.cache.EntryOperation;
+import org.apache.geode.cache.PartitionResolver;
+import org.apache.geode.pdx.PdxInstance;
+
+public class JournalPartitionResolver implements PartitionResolver<Long, Object> {
+
+  public static final String NAME = "journalPartitionResolver";
+
+  private static final String ROUTING_FIELD = "journalSequence";
+
+  public JournalPartitionResolver() {
+    super();
+  }
+
+  @Override
+  public Object getRoutingObject(final EntryOperation<Long, Object> operation) {
+    final Object callbackArgument = operation.getCallbackArgument();
+    if (callbackArgument instanceof Long) {
+      return callbackArgument;
+    }
+
+    final Object value = operation.getNewValue();
+    Object routingObject = null;
+    if (value instanceof JournalItem) {
+      routingObject = ((JournalItem) value).getJournalSequence();
+    } else if (value instanceof Document) {
+      routingObject = ((Document) value).getJournalSequence();
+    } else if (value instanceof PdxInstance && ((PdxInstance) value).hasField(ROUTING_FIELD)) {
+      routingObject = ((PdxInstance) value).getField(ROUTING_FIELD);
+    }
+    return routingObject != null ? routingObject : operation.getKey();
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.data;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
+
+@NoArgsConstructor
+@EqualsAndHashCode
+@Getter
+@Setter
+@ReplicateRegion(
+    name = "pending_projections",
+    persistent = true
+)
+public class PendingProjection {
+
+  @Id
+  private Long sequence;
+  private LocalDateTime createdAt;
+  private String claimedBy;
+  private LocalDateTime claimedAt;
+
+  public static PendingProjection of(final Long sequence) {
+    final PendingProjection pendingProjection = new PendingProjection();
+    pendingProjection.setSequence(sequence);
+    pendingProjection.setCreatedAt(LocalDateTime.now(Clock.systemUTC()));
+    return pendingProjection;
+  }
+
+  public PendingProjection claim(final String claimant) {
+    final PendingProjection claimedProjection = new PendingProjection();
+    claimedProjection.setSequence(this.sequence);
+    claimedProjection.setCreatedAt(this.createdAt);
+    claimedProjection.setClaimedBy(claimant);
+    claimedProjection.setClaimedAt(claimant != null ? LocalDateTime.now(Clock.systemUTC()) : null);
+    return claimedProjection;
+  }
+}
@@ -42,7 +42,7 @@ import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
     name = "percentage_fees",
     persistent = true
 )
-public class PercentageFee {
+public class PercentageFee implements Fee {
   @Id
   private Long identifier;
   @Indexed
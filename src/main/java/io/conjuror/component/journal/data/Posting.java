@@ -0,0 +1,74 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.gemfire.mapping.annotation.Indexed;
+import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@ReplicateRegion(
+    name = "postings",
+    persistent = true
+)
+public class Posting {
+
+  @Id
+  private String key;
+  @Indexed
+  private String accountReference;
+  @Indexed
+  private Long journalSequence;
+  private String currencyCode;
+  @Indexed
+  private LocalDate valueDate;
+  private BigDecimal amount;
+  private Boolean released;
+  @Indexed
+  private String statementKey;
+
+  public static String keyOf(final String accountReference, final Long journalSequence) {
+    return String.join("#", accountReference, journalSequence.toString());
+  }
+
+  public static String statementKeyOf(final String accountReference, final LocalDate valueDate,
+      final Long journalSequence) {
+    if (valueDate == null) {
+      return null;
+    }
+    return String.join("#", accountReference, DateTimeFormatter.BASIC_ISO_DATE.format(valueDate),
+        String.format("%019d", journalSequence));
+  }
+}
@@ -42,7 +42,7 @@ import org.springframework.data.gemfire.mapping.annotation.ReplicateRegion;
     name = "recurring_fees",
     persistent = true
 )
-public class RecurringFee {
+public class RecurringFee implements Fee {
   @Id
   private Long identifier;
   @Indexed
@@ -0,0 +1,131 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.function;
+
+import io.conjuror.component.journal.common.MoneyAccumulator;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+
+public class BalanceFunction implements Function<Object[]> {
+
+  public static final String ID = "conjuror-balance";
+  public static final String QUERY =
+      "SELECT p.accountReference, p.currencyCode, p.valueDate, p.amount FROM /postings p "
+          + "WHERE p.released = true AND p.accountReference IN $1";
+
+  public BalanceFunction() {
+    super();
+  }
+
+  public static Object[] arguments(final Set<String> accountNumbers, final LocalDate asOf) {
+    return new Object[]{
+        accountNumbers.toArray(new String[0]),
+        DateTimeFormatter.ISO_DATE.format(asOf)
+    };
+  }
+
+  public static HashMap<String, HashMap<String, BigDecimal>> aggregate(final SelectResults<?> rows,
+      final LocalDate asOf) {
+    final HashMap<String, HashMap<String, MoneyAccumulator>> accumulators = new HashMap<>();
+    for (final Object row : rows) {
+      final Object[] values = ((Struct) row).getFieldValues();
+      final LocalDate valueDate = (LocalDate) values[2];
+      if (valueDate != null && valueDate.isAfter(asOf)) {
+        continue;
+      }
+      accumulators
+          .computeIfAbsent((String) values[0], accountNumber -> new HashMap<>())
+          .computeIfAbsent((String) values[1], currencyCode -> new MoneyAccumulator())
+          .add((BigDecimal) values[3]);
+    }
+
+    final HashMap<String, HashMap<String, BigDecimal>> balances = new HashMap<>();
+    accumulators.forEach((accountNumber, accountAccumulators) -> {
+      final HashMap<String, BigDecimal> accountBalances = new HashMap<>();
+      accountAccumulators.forEach((currencyCode, accumulator) ->
+          accountBalances.put(currencyCode, accumulator.toBigDecimal())
+      );
+      balances.put(accountNumber, accountBalances);
+    });
+    return balances;
+  }
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public boolean hasResult() {
+    return true;
+  }
+
+  @Override
+  public boolean optimizeForWrite() {
+    return false;
+  }
+
+  @Override
+  public boolean isHA() {
+    return true;
+  }
+
+  @Override
+  public void execute(final FunctionContext<Object[]> context) {
+    final Object[] arguments = context.getArguments();
+    final Set<String> accountNumbers = new HashSet<>(Arrays.asList((String[]) arguments[0]));
+    final LocalDate asOf = LocalDate.parse((String) arguments[1], DateTimeFormatter.ISO_DATE);
+
+    try {
+      final Query query = context.getCache().getQueryService().newQuery(QUERY);
+      final Object results;
+      if (context instanceof RegionFunctionContext
+          && PartitionRegionHelper.isPartitionedRegion(((RegionFunctionContext<?>) context).getDataSet())) {
+        results = query.execute((RegionFunctionContext<?>) context, new Object[]{accountNumbers});
+      } else {
+        results = query.execute(accountNumbers);
+      }
+      context.getResultSender().lastResult(aggregate((SelectResults<?>) results, asOf));
+    } catch (final QueryException qex) {
+      throw new FunctionException(qex);
+    }
+  }
+}
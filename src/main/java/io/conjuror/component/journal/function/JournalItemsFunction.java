@@ -0,0 +1,98 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.function;
+
+import io.conjuror.component.journal.data.JournalItem;
+import java.util.ArrayList;
+import java.util.Comparator;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.SelectResults;
+
+public class JournalItemsFunction implements Function<Long> {
+
+  public static final String ID = "conjuror-journal-items";
+  public static final String QUERY =
+      "SELECT * FROM /items i WHERE i.journalSequence = $1";
+
+  public JournalItemsFunction() {
+    super();
+  }
+
+  public static ArrayList<JournalItem> sort(final SelectResults<?> rows) {
+    final ArrayList<JournalItem> journalItems = new ArrayList<>(rows.size());
+    for (final Object row : rows) {
+      journalItems.add((JournalItem) row);
+    }
+    journalItems.sort(Comparator.comparing(JournalItem::getSequence));
+    return journalItems;
+  }
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public boolean hasResult() {
+    return true;
+  }
+
+  @Override
+  public boolean optimizeForWrite() {
+    return true;
+  }
+
+  @Override
+  public boolean isHA() {
+    return true;
+  }
+
+  @Override
+  public void execute(final FunctionContext<Long> context) {
+    final Object[] parameters = new Object[]{context.getArguments()};
+
+    try {
+      final Query query = context.getCache().getQueryService().newQuery(QUERY);
+      final Object results;
+      if (context instanceof RegionFunctionContext
+          && PartitionRegionHelper.isPartitionedRegion(((RegionFunctionContext<?>) context).getDataSet())) {
+        results = query.execute((RegionFunctionContext<?>) context, parameters);
+      } else {
+        results = query.execute(parameters);
+      }
+      context.getResultSender().lastResult(sort((SelectResults<?>) results));
+    } catch (final QueryException qex) {
+      throw new FunctionException(qex);
+    }
+  }
+}
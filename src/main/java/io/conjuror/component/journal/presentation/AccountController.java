@@ -26,26 +26,48 @@
  */
 package io.conjuror.component.journal.presentation;
 
+import com.google.gson.Gson;
 import io.conjuror.component.journal.common.Balance;
+import io.conjuror.component.journal.common.StatementLine;
+import io.conjuror.component.journal.data.Posting;
 import io.conjuror.component.journal.service.AccountService;
+import io.conjuror.component.journal.service.ProjectionService;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping(path = "/accounts/{number}")
 public class AccountController {
 
   private final AccountService accountService;
+  private final ProjectionService projectionService;
+  private final Gson gson;
 
   @Autowired
-  public AccountController(final AccountService accountService) {
+  public AccountController(
+      final AccountService accountService,
+      final ProjectionService projectionService,
+      final Gson gson) {
     this.accountService = accountService;
+    this.projectionService = projectionService;
+    this.gson = gson;
   }
 
   @RequestMapping(
@@ -54,7 +76,51 @@ public class AccountController {
   )
   @ResponseStatus(HttpStatus.OK)
   public Balance getBalance(@PathVariable("number") final String number,
-      @RequestParam(value = "currency", defaultValue = "EUR") final String currency) {
+      @RequestParam(value = "currency", defaultValue = "EUR") final String currency,
+      @RequestParam(value = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE) final LocalDate asOf,
+      @RequestParam(value = "exact", defaultValue = "true") final Boolean exact) {
+    if (exact) {
+      this.projectionService.catchUp();
+    }
+    if (asOf != null) {
+      return this.accountService.determineBalance(number, currency, asOf);
+    }
     return this.accountService.determineBalance(number, currency);
   }
+
+  @GetMapping(
+      path = "/postings",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public List<Posting> fetchPostings(@PathVariable("number") final String number) {
+    return this.accountService.fetchPostings(number);
+  }
+
+  @GetMapping(
+      path = "/postings",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public StreamingResponseBody streamStatement(@PathVariable("number") final String number,
+      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = ISO.DATE) final LocalDate from,
+      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = ISO.DATE) final LocalDate to) {
+    return outputStream -> {
+      final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+      this.accountService.streamStatement(number, from, to, lines -> {
+        try {
+          for (final StatementLine line : lines) {
+            this.gson.toJson(line, writer);
+            writer.write('\n');
+          }
+          writer.flush();
+        } catch (final IOException ioex) {
+          throw new UncheckedIOException(ioex);
+        }
+      });
+      writer.flush();
+    };
+  }
 }
@@ -0,0 +1,152 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.presentation;
+
+import com.google.gson.Gson;
+import io.conjuror.component.journal.common.Balance;
+import io.conjuror.component.journal.service.AccountService;
+import io.conjuror.component.journal.service.ProjectionService;
+import io.conjuror.component.journal.service.RebuildService;
+import io.conjuror.component.journal.service.SnapshotService;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping(path = "/balances")
+public class BalanceController {
+
+  private final AccountService accountService;
+  private final SnapshotService snapshotService;
+  private final RebuildService rebuildService;
+  private final ProjectionService projectionService;
+  private final Gson gson;
+
+  @Autowired
+  public BalanceController(
+      final AccountService accountService,
+      final SnapshotService snapshotService,
+      final RebuildService rebuildService,
+      final ProjectionService projectionService,
+      final Gson gson) {
+    super();
+    this.accountService = accountService;
+    this.snapshotService = snapshotService;
+    this.rebuildService = rebuildService;
+    this.projectionService = projectionService;
+    this.gson = gson;
+  }
+
+  @PostMapping(
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public List<Balance> computeBalances(@RequestBody final List<String> accountNumbers,
+      @RequestParam(value = "currency", defaultValue = "EUR") final String currency,
+      @RequestParam(value = "asOf", required = false) @DateTimeFormat(iso = ISO.DATE) final LocalDate asOf,
+      @RequestParam(value = "exact", defaultValue = "true") final Boolean exact) {
+    if (exact) {
+      this.projectionService.catchUp();
+    }
+    if (asOf != null) {
+      return this.accountService.computeBalances(accountNumbers, currency, asOf);
+    }
+    return this.accountService.computeBalances(accountNumbers, currency);
+  }
+
+  @PostMapping(
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public StreamingResponseBody streamBalances(@RequestBody final List<String> accountNumbers,
+      @RequestParam(value = "currency", defaultValue = "EUR") final String currency,
+      @RequestParam(value = "exact", defaultValue = "true") final Boolean exact) {
+    if (exact) {
+      this.projectionService.catchUp();
+    }
+    return outputStream -> {
+      final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+      this.accountService.streamBalances(accountNumbers, currency, balances -> {
+        try {
+          for (final Balance balance : balances) {
+            this.gson.toJson(balance, writer);
+            writer.write('\n');
+          }
+          writer.flush();
+        } catch (final IOException ioex) {
+          throw new UncheckedIOException(ioex);
+        }
+      });
+      writer.flush();
+    };
+  }
+
+  @PostMapping(
+      path = "/snapshots",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Long takeSnapshot() {
+    return this.snapshotService.takeSnapshot();
+  }
+
+  @PostMapping(
+      path = "/rebuild",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Integer rebuildAccounts() {
+    return this.rebuildService.rebuildAccounts();
+  }
+
+  @PostMapping(
+      path = "/daily/rebuild",
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Integer rebuildDailyBalances() {
+    return this.rebuildService.rebuildDailyBalances();
+  }
+}
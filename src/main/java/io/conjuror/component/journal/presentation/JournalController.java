@@ -26,44 +26,102 @@
  */
 package io.conjuror.component.journal.presentation;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.conjuror.component.journal.JournalConfiguration;
+import io.conjuror.component.journal.common.IngestionReport;
+import io.conjuror.component.journal.common.JournalEntry;
+import io.conjuror.component.journal.common.MerkleProof;
 import io.conjuror.component.journal.common.TypedPage;
+import io.conjuror.component.journal.common.TypedSlice;
 import io.conjuror.component.journal.data.Document;
+import io.conjuror.component.journal.data.DocumentBlob;
 import io.conjuror.component.journal.data.Journal;
 import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.exception.RequestValidationException;
+import io.conjuror.component.journal.exception.ResourceConflictException;
 import io.conjuror.component.journal.processor.JournalRequestProcessor;
 import io.conjuror.component.journal.request.AddItemRequest;
 import io.conjuror.component.journal.request.AttachDocumentRequest;
 import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.IngestJournalRequest;
 import io.conjuror.component.journal.request.TransitionJournalRequest;
+import io.conjuror.component.journal.service.DocumentService;
 import io.conjuror.component.journal.service.JournalService;
+import io.conjuror.component.journal.service.MerkleService;
+import io.conjuror.component.journal.service.RebuildService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping(path = "/journals")
 public class JournalController {
 
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+
   private final JournalRequestProcessor journalRequestProcessor;
   private final JournalService journalService;
+  private final MerkleService merkleService;
+  private final DocumentService documentService;
+  private final RebuildService rebuildService;
+  private final Validator validator;
+  private final Gson gson;
+
+  @Value("${io.conjuror.ingestion.batch-size:1000}")
+  private Integer batchSize;
 
   @Autowired
   public JournalController(
       final JournalRequestProcessor journalRequestProcessor,
-      final JournalService journalService) {
+      final JournalService journalService,
+      final MerkleService merkleService,
+      final DocumentService documentService,
+      final RebuildService rebuildService,
+      final Validator validator,
+      final Gson gson) {
     super();
     this.journalRequestProcessor = journalRequestProcessor;
     this.journalService = journalService;
+    this.merkleService = merkleService;
+    this.documentService = documentService;
+    this.rebuildService = rebuildService;
+    this.validator = validator;
+    this.gson = gson;
   }
 
   @PostMapping(
@@ -75,6 +133,75 @@ public class JournalController {
     return this.journalRequestProcessor.process(request);
   }
 
+  @PostMapping(
+      path = "/batches",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<IngestionReport> ingestJournals(@RequestBody final List<IngestJournalRequest> requests) {
+    requests.forEach(this::validate);
+    final ArrayList<Long> sequences = new ArrayList<>(requests.size());
+    try {
+      for (int from = 0; from < requests.size(); from += this.batchSize) {
+        sequences.addAll(this.journalRequestProcessor.process(
+            requests.subList(from, Math.min(from + this.batchSize, requests.size()))));
+      }
+    } catch (final RuntimeException rex) {
+      return this.report(sequences, rex);
+    }
+    return this.report(sequences, null);
+  }
+
+  @PostMapping(
+      path = "/batches",
+      consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  public ResponseEntity<IngestionReport> ingestJournals(final Reader reader) throws IOException {
+    final ArrayList<Long> sequences = new ArrayList<>();
+    final ArrayList<IngestJournalRequest> batch = new ArrayList<>(this.batchSize);
+    try (final BufferedReader bufferedReader = new BufferedReader(reader)) {
+      String line;
+      while ((line = bufferedReader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          batch.add(this.validate(this.gson.fromJson(line, IngestJournalRequest.class)));
+        } catch (final JsonParseException jpex) {
+          throw new RequestValidationException("Journal request is not valid JSON.");
+        }
+        if (batch.size() == this.batchSize) {
+          sequences.addAll(this.journalRequestProcessor.process(batch));
+          batch.clear();
+        }
+      }
+      if (!batch.isEmpty()) {
+        sequences.addAll(this.journalRequestProcessor.process(batch));
+      }
+    } catch (final RuntimeException rex) {
+      return this.report(sequences, rex);
+    }
+    return this.report(sequences, null);
+  }
+
+  private ResponseEntity<IngestionReport> report(final List<Long> sequences, final RuntimeException rex) {
+    if (rex == null) {
+      return ResponseEntity.ok(IngestionReport.of(sequences, sequences.size(), null));
+    }
+
+    final HttpStatus status;
+    if (rex instanceof RequestValidationException) {
+      status = HttpStatus.BAD_REQUEST;
+    } else if (rex instanceof ResourceConflictException) {
+      status = HttpStatus.CONFLICT;
+    } else {
+      status = HttpStatus.INTERNAL_SERVER_ERROR;
+      LOGGER.error("Bulk ingestion failed after {} committed journal(s).", sequences.size(), rex);
+    }
+    return ResponseEntity.status(status).body(IngestionReport.of(sequences, sequences.size(), rex.getMessage()));
+  }
+
   @GetMapping(
       consumes = MediaType.ALL_VALUE,
       produces = MediaType.APPLICATION_JSON_VALUE
@@ -86,6 +213,43 @@ public class JournalController {
     return this.journalService.fetchJournals(page, size);
   }
 
+  @GetMapping(
+      path = "/slices",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public TypedSlice<Journal> fetchJournalSlice(
+      @RequestParam(value = "after", required = false) final Long after,
+      @RequestParam(value = "s", defaultValue = "20") final Integer size) {
+    return this.journalService.fetchJournals(after, size);
+  }
+
+  @GetMapping(
+      path = "/export",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public StreamingResponseBody exportJournals(
+      @RequestParam(value = "s", defaultValue = "500") final Integer size) {
+    return outputStream -> {
+      final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+      this.journalService.exportJournals(size, entries -> {
+        try {
+          for (final JournalEntry entry : entries) {
+            this.gson.toJson(entry, writer);
+            writer.write('\n');
+          }
+          writer.flush();
+        } catch (final IOException ioex) {
+          throw new UncheckedIOException(ioex);
+        }
+      });
+      writer.flush();
+    };
+  }
+
   @GetMapping(
       path = "/{sequence}",
       consumes = MediaType.ALL_VALUE,
@@ -117,6 +281,29 @@ public class JournalController {
     return this.journalService.findAllItemsByJournal(sequence);
   }
 
+  @GetMapping(
+      path = "/{sequence}/items/{itemSequence}/proof",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public MerkleProof fetchItemProof(@PathVariable("sequence") final Long sequence,
+      @PathVariable("itemSequence") final Long itemSequence) {
+    return this.merkleService.prove(sequence, itemSequence);
+  }
+
+  @PostMapping(
+      path = "/{sequence}/items/{itemSequence}/proof",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public Boolean verifyItemProof(@PathVariable("sequence") final Long sequence,
+      @PathVariable("itemSequence") final Long itemSequence,
+      @RequestBody final MerkleProof proof) {
+    return this.merkleService.verify(sequence, itemSequence, proof);
+  }
+
   @PostMapping(
       path = "/{sequence}/items/{itemSequence}/documents",
       consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -140,6 +327,121 @@ public class JournalController {
     return this.journalService.findAllDocumentsByJournalItem(itemSequence);
   }
 
+  @PostMapping(
+      path = "/{sequence}/items/{itemSequence}/documents",
+      consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Document uploadDocumentToJournalItem(@PathVariable("sequence") final Long sequence,
+      @PathVariable("itemSequence") final Long itemSequence,
+      @RequestParam("mimeType") final String mimeType,
+      final InputStream content) throws IOException {
+    return this.journalRequestProcessor.process(sequence, itemSequence, mimeType, content);
+  }
+
+  @PostMapping(
+      path = "/{sequence}/items/{itemSequence}/documents",
+      consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Document uploadDocumentToJournalItem(@PathVariable("sequence") final Long sequence,
+      @PathVariable("itemSequence") final Long itemSequence,
+      @RequestParam("file") final MultipartFile file) throws IOException {
+    final String mimeType =
+        file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    try (final InputStream content = file.getInputStream()) {
+      return this.journalRequestProcessor.process(sequence, itemSequence, mimeType, content);
+    }
+  }
+
+  @GetMapping(
+      path = "/{sequence}/items/{itemSequence}/documents/{documentSequence}",
+      consumes = MediaType.ALL_VALUE
+  )
+  public ResponseEntity<StreamingResponseBody> downloadDocument(@PathVariable("sequence") final Long sequence,
+      @PathVariable("itemSequence") final Long itemSequence,
+      @PathVariable("documentSequence") final Long documentSequence,
+      @RequestHeader(value = HttpHeaders.RANGE, required = false) final String range) {
+    final Document document = this.documentService.findDocument(sequence, itemSequence, documentSequence);
+    final DocumentBlob documentBlob = this.documentService.findBlob(document);
+    final long length = documentBlob.getBytes();
+
+    long start = 0L;
+    long end = length - 1L;
+    HttpStatus status = HttpStatus.OK;
+    if (range != null) {
+      try {
+        final List<HttpRange> httpRanges = HttpRange.parseRanges(range);
+        if (httpRanges.size() == 1) {
+          start = httpRanges.get(0).getRangeStart(length);
+          end = httpRanges.get(0).getRangeEnd(length);
+          status = HttpStatus.PARTIAL_CONTENT;
+        }
+      } catch (final IllegalArgumentException iaex) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, String.format("bytes */%d", length))
+            .build();
+      }
+    }
+
+    final ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+        .contentType(this.contentTypeOf(document))
+        .contentLength(end - start + 1L)
+        .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+    if (status == HttpStatus.PARTIAL_CONTENT) {
+      builder.header(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, length));
+    }
+
+    final long rangeStart = start;
+    final long rangeEnd = end;
+    return builder.body(outputStream -> this.documentService.read(documentBlob, rangeStart, rangeEnd, outputStream));
+  }
+
+  private MediaType contentTypeOf(final Document document) {
+    try {
+      final MediaType mediaType = MediaType.parseMediaType(document.getMimeType());
+      if (!mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+        return mediaType;
+      }
+    } catch (final InvalidMediaTypeException imtex) {
+      LOGGER.warn("Document '{}' has an invalid mime type '{}'.", document.getSequence(), document.getMimeType());
+    }
+    return MediaType.APPLICATION_OCTET_STREAM;
+  }
+
+  @DeleteMapping(
+      path = "/{sequence}/items/{itemSequence}/documents/{documentSequence}",
+      consumes = MediaType.ALL_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public void detachDocument(@PathVariable("sequence") final Long sequence,
+      @PathVariable("itemSequence") final Long itemSequence,
+      @PathVariable("documentSequence") final Long documentSequence) {
+    this.journalRequestProcessor.detachDocument(sequence, itemSequence, documentSequence);
+  }
+
+  @PostMapping(
+      path = "/documents/migrations",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Integer migrateLegacyDocuments() throws IOException {
+    return this.documentService.migrateLegacyDocuments();
+  }
+
+  @PostMapping(
+      path = "/identifiers/backfill",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Integer backfillIdentifiers() {
+    return this.rebuildService.backfillIdentifiers();
+  }
+
   @PostMapping(
       path = "/{sequence}/states",
       consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -150,4 +452,18 @@ public class JournalController {
       @RequestBody @Valid final TransitionJournalRequest request) {
     this.journalRequestProcessor.process(sequence, request);
   }
+
+  private IngestJournalRequest validate(final IngestJournalRequest request) {
+    if (request == null) {
+      throw new RequestValidationException("Journal request is mandatory.");
+    }
+    final Set<ConstraintViolation<IngestJournalRequest>> violations = this.validator.validate(request);
+    if (!violations.isEmpty()) {
+      final ConstraintViolation<IngestJournalRequest> violation = violations.iterator().next();
+      throw new RequestValidationException(
+          String.format("Journal request is not valid, '%s' %s.", violation.getPropertyPath(), violation.getMessage())
+      );
+    }
+    return request;
+  }
 }
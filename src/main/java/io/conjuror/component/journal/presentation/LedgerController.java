@@ -0,0 +1,122 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.presentation;
+
+import com.google.gson.Gson;
+import io.conjuror.component.journal.common.JournalEntry;
+import io.conjuror.component.journal.common.LedgerAudit;
+import io.conjuror.component.journal.exception.ResourceNotFoundException;
+import io.conjuror.component.journal.service.LedgerLogService;
+import io.conjuror.component.journal.service.RebuildService;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping(path = "/ledger")
+public class LedgerController {
+
+  private final LedgerLogService ledgerLogService;
+  private final RebuildService rebuildService;
+  private final Gson gson;
+
+  @Autowired
+  public LedgerController(
+      final LedgerLogService ledgerLogService,
+      final RebuildService rebuildService,
+      final Gson gson) {
+    super();
+    this.ledgerLogService = ledgerLogService;
+    this.rebuildService = rebuildService;
+    this.gson = gson;
+  }
+
+  @GetMapping(
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public StreamingResponseBody replayLedger() {
+    return outputStream -> {
+      final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+      this.ledgerLogService.replay(entry -> {
+        try {
+          this.gson.toJson(entry, writer);
+          writer.write('\n');
+        } catch (final IOException ioex) {
+          throw new UncheckedIOException(ioex);
+        }
+      });
+      writer.flush();
+    };
+  }
+
+  @GetMapping(
+      path = "/{sequence}",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public JournalEntry fetchLedgerEntry(@PathVariable("sequence") final Long sequence) {
+    return this.ledgerLogService.find(sequence)
+        .orElseThrow(() ->
+            new ResourceNotFoundException(String.format("Journal '%s' not found in ledger.", sequence))
+        );
+  }
+
+  @GetMapping(
+      path = "/audit",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.OK)
+  public LedgerAudit auditLedger() {
+    return this.ledgerLogService.audit();
+  }
+
+  @PostMapping(
+      path = "/backfill",
+      consumes = MediaType.ALL_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Integer backfillLedger() {
+    return this.rebuildService.backfillLedger();
+  }
+}
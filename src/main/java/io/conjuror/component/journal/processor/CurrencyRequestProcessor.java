@@ -27,26 +27,40 @@
 package io.conjuror.component.journal.processor;
 
 import io.conjuror.component.journal.data.Currency;
+import io.conjuror.component.journal.exception.RequestValidationException;
 import io.conjuror.component.journal.repository.CurrencyRepository;
 import io.conjuror.component.journal.request.SetCurrencyRequest;
+import io.conjuror.component.journal.service.ExchangeService;
 import java.math.BigDecimal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class CurrencyRequestProcessor {
 
   private final CurrencyRepository currencyRepository;
+  private final ExchangeService exchangeService;
 
   @Autowired
-  public CurrencyRequestProcessor(final CurrencyRepository currencyRepository) {
+  public CurrencyRequestProcessor(
+      final CurrencyRepository currencyRepository,
+      final ExchangeService exchangeService) {
     super();
     this.currencyRepository = currencyRepository;
+    this.exchangeService = exchangeService;
   }
 
   @Transactional
   public void process(final SetCurrencyRequest request) {
+    if (request.getRate() == null || request.getRate().signum() <= 0) {
+      throw new RequestValidationException(
+          String.format("Rate of currency '%s' must be positive.", request.getCode())
+      );
+    }
+
     final Currency currency =
         this.currencyRepository.findById(request.getCode())
             .orElseGet(() -> {
@@ -59,5 +73,16 @@ public class CurrencyRequestProcessor {
     currency.setRate(request.getRate());
     currency.setPrecision(request.getPrecision());
     this.currencyRepository.save(currency);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(final int status) {
+          CurrencyRequestProcessor.this.exchangeService.invalidate();
+        }
+      });
+    } else {
+      this.exchangeService.invalidate();
+    }
   }
 }
@@ -26,32 +26,58 @@
  */
 package io.conjuror.component.journal.processor;
 
+import io.conjuror.component.journal.common.JournalEntry;
+import io.conjuror.component.journal.common.MoneyAccumulator;
 import io.conjuror.component.journal.data.Document;
 import io.conjuror.component.journal.data.Journal;
 import io.conjuror.component.journal.data.Journal.State;
 import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.data.JournalIdentifier;
 import io.conjuror.component.journal.data.JournalItem.Allocation;
+import io.conjuror.component.journal.data.Posting;
 import io.conjuror.component.journal.exception.RequestValidationException;
 import io.conjuror.component.journal.exception.ResourceConflictException;
 import io.conjuror.component.journal.exception.ResourceNotFoundException;
-import io.conjuror.component.journal.repository.DocumentRepository;
 import io.conjuror.component.journal.repository.JournalItemRepository;
 import io.conjuror.component.journal.repository.JournalRepository;
 import io.conjuror.component.journal.request.AddItemRequest;
 import io.conjuror.component.journal.request.AttachDocumentRequest;
 import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.IngestJournalRequest;
 import io.conjuror.component.journal.request.TransitionJournalRequest;
 import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import io.conjuror.component.journal.service.AccountService;
+import io.conjuror.component.journal.service.DocumentService;
 import io.conjuror.component.journal.service.FingerprintService;
+import io.conjuror.component.journal.service.JournalItemService;
+import io.conjuror.component.journal.service.LedgerLogService;
+import io.conjuror.component.journal.service.MerkleService;
+import io.conjuror.component.journal.service.ProjectionService;
 import io.conjuror.component.journal.service.SnowflakeService;
-import java.math.BigDecimal;
+import io.conjuror.component.journal.service.SnowflakeService.Block;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicReference;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.geode.cache.Region;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -60,38 +86,394 @@ public class JournalRequestProcessor {
 
   private final SnowflakeService snowflakeService;
   private final FingerprintService fingerprintService;
+  private final MerkleService merkleService;
+  private final JournalItemService journalItemService;
+  private final AccountService accountService;
   private final JournalRepository journalRepository;
   private final JournalItemRepository journalItemRepository;
-  private final DocumentRepository documentRepository;
+  private final DocumentService documentService;
+  private final LedgerLogService ledgerLogService;
+  private final ProjectionService projectionService;
+  private final Region<Long, Journal> journalRegion;
+  private final Region<String, JournalIdentifier> journalIdentifierRegion;
+
+  @Value("${io.conjuror.projection.asynchronous:false}")
+  private Boolean asynchronousProjection;
+
+  @Value("${io.conjuror.journals.claim-timeout:30000}")
+  private Long claimTimeout;
+
+  @Value("${io.conjuror.journals.legacy-identifiers:true}")
+  private Boolean legacyIdentifiers;
 
   @Autowired
   public JournalRequestProcessor(
       final SnowflakeService snowflakeService,
       final FingerprintService fingerprintService,
+      final MerkleService merkleService,
+      final JournalItemService journalItemService,
+      final AccountService accountService,
       final JournalRepository journalRepository,
       final JournalItemRepository journalItemRepository,
-      final DocumentRepository documentRepository) {
+      final DocumentService documentService,
+      final LedgerLogService ledgerLogService,
+      final ProjectionService projectionService,
+      @Qualifier("journals") final Region<Long, Journal> journalRegion,
+      @Qualifier("journal_identifiers") final Region<String, JournalIdentifier> journalIdentifierRegion) {
     super();
     this.snowflakeService = snowflakeService;
     this.fingerprintService = fingerprintService;
+    this.merkleService = merkleService;
+    this.journalItemService = journalItemService;
+    this.accountService = accountService;
     this.journalRepository = journalRepository;
     this.journalItemRepository = journalItemRepository;
-    this.documentRepository = documentRepository;
+    this.documentService = documentService;
+    this.ledgerLogService = ledgerLogService;
+    this.projectionService = projectionService;
+    this.journalRegion = journalRegion;
+    this.journalIdentifierRegion = journalIdentifierRegion;
   }
 
-  @Transactional
   public Long process(final CreateJournalRequest request) {
-    if (this.journalRepository.findByIdentifier(request.getIdentifier()).isPresent()) {
+    final JournalIdentifier claim = JournalIdentifier.of(request.getIdentifier(), this.snowflakeService.next(),
+        this.fingerprintService.digest(request));
+    claim.setPending(Boolean.TRUE);
+
+    while (true) {
+      JournalIdentifier existingIdentifier = this.journalIdentifierRegion.get(claim.getIdentifier());
+      if (existingIdentifier == null) {
+        existingIdentifier = this.registerLegacyIdentifier(claim.getIdentifier());
+      }
+      if (existingIdentifier == null) {
+        if (this.journalIdentifierRegion.putIfAbsent(claim.getIdentifier(), claim) == null) {
+          break;
+        }
+      } else if (this.isAbandoned(existingIdentifier)) {
+        if (this.journalIdentifierRegion.replace(claim.getIdentifier(), existingIdentifier, claim)) {
+          break;
+        }
+      } else {
+        return this.replay(claim, existingIdentifier);
+      }
+    }
+
+    try {
+      this.journalRepository.save(this.buildJournal(claim.getSequence(), request));
+    } catch (final RuntimeException rex) {
+      this.journalIdentifierRegion.remove(claim.getIdentifier(), claim);
+      throw rex;
+    }
+
+    final JournalIdentifier completedIdentifier = this.complete(claim);
+    if (!this.journalIdentifierRegion.replace(claim.getIdentifier(), claim, completedIdentifier)
+        && !completedIdentifier.equals(this.journalIdentifierRegion.get(claim.getIdentifier()))) {
+      this.journalRepository.deleteById(claim.getSequence());
+      return this.replay(claim, this.journalIdentifierRegion.get(claim.getIdentifier()));
+    }
+    return claim.getSequence();
+  }
+
+  @Transactional
+  public void process(final Long sequence, final AddItemRequest request) {
+    final long itemSequence = this.snowflakeService.next();
+    while (true) {
+      final Journal existingJournal = this.resolveAndValidate(sequence, State.PREPARATION);
+      final Journal journal = this.copy(existingJournal);
+      final JournalItem journalItem = this.buildItem(itemSequence, journal, request);
+      this.merkleService.append(journal, journalItem);
+      if (this.journalRegion.replace(sequence, existingJournal, journal)) {
+        this.journalItemRepository.save(journalItem);
+        return;
+      }
+    }
+  }
+
+  @Transactional
+  public List<Long> process(final List<IngestJournalRequest> requests) {
+    if (requests.isEmpty()) {
+      return List.of();
+    }
+
+    final Set<String> identifiers = new HashSet<>();
+    for (final IngestJournalRequest request : requests) {
+      if (request.getJournal() == null || request.getItems() == null || request.getItems().isEmpty()) {
+        throw new RequestValidationException("Journal and items are mandatory.");
+      }
+      if (request.getAction() == Action.CANCEL) {
+        throw new RequestValidationException("Ingested journals can not be canceled.");
+      }
+      if (!identifiers.add(request.getJournal().getIdentifier())) {
+        throw new RequestValidationException(
+            String.format("Journal identifier '%s' is not unique.", request.getJournal().getIdentifier())
+        );
+      }
+    }
+
+    final Map<String, Long> sequencesByIdentifier = new HashMap<>();
+    final Map<String, String> requestDigests = new HashMap<>();
+    final List<IngestJournalRequest> pendingRequests = new ArrayList<>(requests.size());
+    int itemCount = 0;
+    final Map<String, JournalIdentifier> existingIdentifiers = this.journalIdentifierRegion.getAll(identifiers);
+    for (final IngestJournalRequest request : requests) {
+      final String identifier = request.getJournal().getIdentifier();
+      final JournalIdentifier journalIdentifier =
+          JournalIdentifier.of(identifier, null, this.fingerprintService.digest(request));
+      final JournalIdentifier existingIdentifier = existingIdentifiers.get(identifier);
+      if (existingIdentifier != null && !this.isAbandoned(existingIdentifier)) {
+        sequencesByIdentifier.put(identifier, this.replay(journalIdentifier, existingIdentifier));
+      } else {
+        requestDigests.put(identifier, journalIdentifier.getRequestDigest());
+        pendingRequests.add(request);
+        itemCount += request.getItems().size();
+      }
+    }
+    if (pendingRequests.isEmpty()) {
+      return this.collectSequences(requests, sequencesByIdentifier);
+    }
+
+    final List<Journal> existingJournals = this.legacyIdentifiers
+        ? this.journalRepository.findAllByIdentifierIn(requestDigests.keySet())
+        : List.of();
+    if (!existingJournals.isEmpty()) {
+      throw new ResourceConflictException(
+          String.format("Journal with identifier '%s' already exists.", existingJournals.get(0).getIdentifier())
+      );
+    }
+
+    final Block block = this.snowflakeService.reserve(pendingRequests.size() + itemCount);
+    int blockIndex = 0;
+
+    final List<Journal> journals = new ArrayList<>(pendingRequests.size());
+    final List<JournalItem> journalItems = new ArrayList<>(itemCount);
+    final Map<Long, List<JournalItem>> journalItemsBySequence = new HashMap<>();
+    for (final IngestJournalRequest request : pendingRequests) {
+      final Journal journal = this.buildJournal(block.get(blockIndex++), request.getJournal());
+      final List<JournalItem> itemsOfJournal = new ArrayList<>(request.getItems().size());
+      for (final AddItemRequest itemRequest : request.getItems()) {
+        final JournalItem journalItem = this.buildItem(block.get(blockIndex++), journal, itemRequest);
+        this.merkleService.append(journal, journalItem);
+        itemsOfJournal.add(journalItem);
+      }
+      sequencesByIdentifier.put(journal.getIdentifier(), journal.getSequence());
+      journals.add(journal);
+      journalItems.addAll(itemsOfJournal);
+      journalItemsBySequence.put(journal.getSequence(), itemsOfJournal);
+    }
+
+    final List<Posting> postings = this.accountService.record(journals, journalItems);
+
+    for (int index = 0; index < journals.size(); index++) {
+      final Action action = pendingRequests.get(index).getAction();
+      final Journal journal = journals.get(index);
+      if (action == Action.SCHEDULE || action == Action.RELEASE) {
+        journal.setState(State.SCHEDULED);
+        journal.setFingerPrint(
+            this.generateFingerprint(journal, journalItemsBySequence.get(journal.getSequence()))
+        );
+        journal.setMerkleRoot(this.merkleService.root(journal));
+      }
+      if (action == Action.RELEASE) {
+        journal.setState(State.RELEASED);
+      }
+    }
+
+    final Set<Long> releasedSequences = journals.stream()
+        .filter(journal -> journal.getState() == State.RELEASED)
+        .map(Journal::getSequence)
+        .collect(Collectors.toSet());
+    final List<JournalIdentifier> claims = new ArrayList<>(journals.size());
+    try {
+      for (final Journal journal : journals) {
+        final JournalIdentifier claim = JournalIdentifier.of(journal.getIdentifier(), journal.getSequence(),
+            requestDigests.get(journal.getIdentifier()));
+        claim.setPending(Boolean.TRUE);
+        final JournalIdentifier abandonedIdentifier = existingIdentifiers.get(journal.getIdentifier());
+        if (abandonedIdentifier != null
+            ? !this.journalIdentifierRegion.replace(claim.getIdentifier(), abandonedIdentifier, claim)
+            : this.journalIdentifierRegion.putIfAbsent(claim.getIdentifier(), claim) != null) {
+          throw new ResourceConflictException(
+              String.format("Journal with identifier '%s' already exists.", journal.getIdentifier())
+          );
+        }
+        claims.add(claim);
+      }
+
+      if (!releasedSequences.isEmpty() && this.asynchronousProjection) {
+        this.projectionService.register(releasedSequences);
+      }
+      this.journalRepository.saveAll(journals);
+      this.journalItemRepository.saveAll(journalItems);
+    } catch (final RuntimeException rex) {
+      this.journalItemRepository.deleteAll(journalItems);
+      this.journalRepository.deleteAll(journals);
+      this.accountService.discard(postings);
+      claims.forEach(claim -> this.journalIdentifierRegion.remove(claim.getIdentifier(), claim));
+      throw rex;
+    }
+    claims.forEach(claim ->
+        this.journalIdentifierRegion.replace(claim.getIdentifier(), claim, this.complete(claim)));
+
+    if (!releasedSequences.isEmpty()) {
+      this.ledgerLogService.archive(
+          journals.stream()
+              .filter(journal -> releasedSequences.contains(journal.getSequence()))
+              .map(journal -> JournalEntry.of(journal, journalItemsBySequence.get(journal.getSequence())))
+              .collect(Collectors.toList())
+      );
+      if (this.asynchronousProjection) {
+        releasedSequences.forEach(this.projectionService::enqueue);
+      } else {
+        this.accountService.post(
+            postings.stream()
+                .filter(posting -> releasedSequences.contains(posting.getJournalSequence()))
+                .collect(Collectors.toList())
+        );
+      }
+    }
+
+    return this.collectSequences(requests, sequencesByIdentifier);
+  }
+
+  public Document process(final Long sequence, final Long itemSequence,
+      final AttachDocumentRequest request) {
+    try {
+      return this.process(sequence, itemSequence, request.getMimeType(),
+          new ByteArrayInputStream(request.getContent().getBytes(StandardCharsets.UTF_8)));
+    } catch (final IOException ioex) {
+      throw new UncheckedIOException(ioex);
+    }
+  }
+
+  public Document process(final Long sequence, final Long itemSequence, final String mimeType,
+      final InputStream content) throws IOException {
+    this.validateMimeType(mimeType);
+    this.resolveAndValidate(sequence, State.PREPARATION);
+
+    final JournalItem referencedItem =
+        this.journalItemService
+            .findItem(sequence, itemSequence)
+            .orElseThrow(() ->
+                new ResourceNotFoundException(String.format("Journal item '%s' not found.", itemSequence))
+            );
+
+    final Document document = new Document();
+    document.setSequence(this.snowflakeService.next());
+    document.setJournalSequence(sequence);
+    document.setJournalItemSequence(referencedItem.getSequence());
+    document.setMimeType(mimeType);
+
+    return this.documentService.store(document, content);
+  }
+
+  public void detachDocument(final Long sequence, final Long itemSequence, final Long documentSequence) {
+    this.resolveAndValidate(sequence, State.PREPARATION);
+
+    this.documentService.remove(this.documentService.findDocument(sequence, itemSequence, documentSequence));
+  }
+
+  @Transactional
+  public void process(final Long sequence, final TransitionJournalRequest request) {
+    final Action action = request.getAction();
+    final Journal existingJournal = this.resolveAndValidate(sequence, action.expectedState());
+    final Journal journal = this.copy(existingJournal);
+    journal.setState(action.desiredState());
+
+    if (action == Action.SCHEDULE) {
+      final List<JournalItem> journalItems =
+          this.journalItemService.findItems(sequence);
+      if (journal.getItemCount() == null || journal.getItemCount() != journalItems.size()
+          || journalItems.stream()
+          .anyMatch(journalItem -> journalItem.getLeafHash() == null || journalItem.getPosition() == null)) {
+        this.merkleService.rebuild(journal, journalItems);
+        this.journalItemRepository.saveAll(journalItems);
+      }
+      this.accountService.record(List.of(journal), journalItems);
+      journal.setFingerPrint(this.generateFingerprint(journal, journalItems));
+      journal.setMerkleRoot(this.merkleService.root(journal));
+    }
+
+    if (journal.getState() == State.RELEASED && this.asynchronousProjection) {
+      this.projectionService.register(sequence);
+    }
+    if (!this.journalRegion.replace(sequence, existingJournal, journal)) {
       throw new ResourceConflictException(
-          String.format("Journal with identifier '%s' already exists.", request.getIdentifier())
+          String.format("Journal '%s' is not in expected state.", sequence)
       );
     }
 
-    final long sequence = this.snowflakeService.next();
+    if (journal.getState() == State.RELEASED) {
+      this.ledgerLogService.archive(List.of(JournalEntry.of(journal, this.journalItemService.findItems(sequence))));
+      if (this.asynchronousProjection) {
+        this.projectionService.enqueue(sequence);
+      } else {
+        this.accountService.post(journal);
+      }
+    }
+  }
+
+  private Long replay(final JournalIdentifier journalIdentifier, final JournalIdentifier existingIdentifier) {
+    if (!journalIdentifier.getRequestDigest().equals(existingIdentifier.getRequestDigest())) {
+      throw new ResourceConflictException(
+          String.format("Journal with identifier '%s' already exists.", journalIdentifier.getIdentifier())
+      );
+    }
+    if (Boolean.TRUE.equals(existingIdentifier.getPending())) {
+      if (!this.journalRepository.existsById(existingIdentifier.getSequence())) {
+        throw new ResourceConflictException(
+            String.format("Journal with identifier '%s' is still being created.", journalIdentifier.getIdentifier())
+        );
+      }
+      this.journalIdentifierRegion.replace(existingIdentifier.getIdentifier(), existingIdentifier,
+          this.complete(existingIdentifier));
+    }
+    return existingIdentifier.getSequence();
+  }
+
+  private boolean isAbandoned(final JournalIdentifier journalIdentifier) {
+    return Boolean.TRUE.equals(journalIdentifier.getPending())
+        && journalIdentifier.getCreatedAt()
+        .isBefore(LocalDateTime.now(Clock.systemUTC()).minus(this.claimTimeout, ChronoUnit.MILLIS))
+        && !this.journalRepository.existsById(journalIdentifier.getSequence());
+  }
+
+  private JournalIdentifier registerLegacyIdentifier(final String identifier) {
+    if (!this.legacyIdentifiers) {
+      return null;
+    }
+
+    final List<Journal> journals = this.journalRepository.findAllByIdentifierIn(List.of(identifier));
+    if (journals.isEmpty()) {
+      return null;
+    }
+
+    final JournalIdentifier legacyIdentifier = JournalIdentifier.of(identifier, journals.get(0).getSequence(),
+        this.fingerprintService.requestDigest(journals.get(0)));
+    final JournalIdentifier concurrentIdentifier =
+        this.journalIdentifierRegion.putIfAbsent(identifier, legacyIdentifier);
+    return concurrentIdentifier != null ? concurrentIdentifier : legacyIdentifier;
+  }
+
+  private JournalIdentifier complete(final JournalIdentifier journalIdentifier) {
+    final JournalIdentifier completedIdentifier = JournalIdentifier.of(journalIdentifier.getIdentifier(),
+        journalIdentifier.getSequence(), journalIdentifier.getRequestDigest());
+    completedIdentifier.setCreatedAt(journalIdentifier.getCreatedAt());
+    completedIdentifier.setPending(Boolean.FALSE);
+    return completedIdentifier;
+  }
+
+  private List<Long> collectSequences(final List<IngestJournalRequest> requests,
+      final Map<String, Long> sequencesByIdentifier) {
+    return requests.stream()
+        .map(request -> sequencesByIdentifier.get(request.getJournal().getIdentifier()))
+        .collect(Collectors.toList());
+  }
+
+  Journal buildJournal(final long sequence, final CreateJournalRequest request) {
     final Journal journal = new Journal();
     journal.setSequence(sequence);
     journal.setIdentifier(request.getIdentifier());
-    journal.setDescription(request.getBookingDate());
+    journal.setDescription(request.getDescription());
     if (request.getValueDate() != null) {
       journal.setValueDate(
           LocalDate.parse(request.getValueDate(), DateTimeFormatter.ISO_DATE)
@@ -105,16 +487,34 @@ public class JournalRequestProcessor {
     journal.setCurrencyCode(request.getCurrencyCode());
     journal.setCreatedAt(LocalDateTime.now(Clock.systemUTC()));
     journal.setState(State.PREPARATION);
-    this.journalRepository.save(journal);
-    return sequence;
+    return journal;
   }
 
-  @Transactional
-  public void process(final Long sequence, final AddItemRequest request) {
-    final Journal journal = this.resolveAndValidate(sequence, State.PREPARATION);
+  Journal copy(final Journal journal) {
+    final Journal copy = new Journal();
+    copy.setSequence(journal.getSequence());
+    copy.setIdentifier(journal.getIdentifier());
+    copy.setDescription(journal.getDescription());
+    copy.setValueDate(journal.getValueDate());
+    copy.setBookingDate(journal.getBookingDate());
+    copy.setCurrencyCode(journal.getCurrencyCode());
+    copy.setState(journal.getState());
+    copy.setCreatedAt(journal.getCreatedAt());
+    copy.setCreatedBy(journal.getCreatedBy());
+    copy.setReleasedAt(journal.getReleasedAt());
+    copy.setReleasedBy(journal.getReleasedBy());
+    copy.setFingerPrint(journal.getFingerPrint());
+    copy.setItemCount(journal.getItemCount());
+    if (journal.getMerkleFrontier() != null) {
+      copy.setMerkleFrontier(new ArrayList<>(journal.getMerkleFrontier()));
+    }
+    copy.setMerkleRoot(journal.getMerkleRoot());
+    return copy;
+  }
 
+  JournalItem buildItem(final long itemSequence, final Journal journal, final AddItemRequest request) {
     final JournalItem journalItem = new JournalItem();
-    journalItem.setSequence(this.snowflakeService.next());
+    journalItem.setSequence(itemSequence);
     journalItem.setJournalSequence(journal.getSequence());
     journalItem.setIdentifier(request.getIdentifier());
 
@@ -123,12 +523,12 @@ public class JournalRequestProcessor {
     source.setAccountReference(request.getSource().getAccountReference());
     source.setAmount(request.getSource().getAmount());
 
-    final AtomicReference<BigDecimal> targetSumReference = new AtomicReference<>(BigDecimal.ZERO);
+    final MoneyAccumulator targetSum = new MoneyAccumulator(source.getAmount().scale());
     journalItem.setTargets(
         request.getTargets()
             .stream()
             .map(allocation -> {
-              targetSumReference.getAndAccumulate(allocation.getAmount(), BigDecimal::add);
+              targetSum.add(allocation.getAmount());
               final Allocation target = new Allocation();
               target.setAccountReference(allocation.getAccountReference());
               target.setAmount(allocation.getAmount());
@@ -137,54 +537,34 @@ public class JournalRequestProcessor {
             .collect(Collectors.toList())
     );
 
-    if (source.getAmount().compareTo(targetSumReference.get()) != 0) {
+    if (source.getAmount().compareTo(targetSum.toBigDecimal()) != 0) {
       throw new RequestValidationException("Item is not in balance.");
     }
 
     journalItem.setPurpose(request.getPurpose());
-
-    this.journalItemRepository.save(journalItem);
+    return journalItem;
   }
 
-  @Transactional
-  public void process(final Long sequence, final Long itemSequence,
-      final AttachDocumentRequest request) {
-    this.resolveAndValidate(sequence, State.PREPARATION);
-
-    final JournalItem referencedItem =
-        this.journalItemRepository
-            .findById(itemSequence)
-            .orElseThrow(() ->
-                new ResourceNotFoundException(String.format("Journal item '%s' not found.", itemSequence))
-            );
-
-    final Document document = new Document();
-    document.setSequence(this.snowflakeService.next());
-    document.setJournalItemSequence(referencedItem.getSequence());
-    document.setMimeType(request.getMimeType());
-    document.setBytes(request.getBytes());
-    document.setContent(request.getContent());
-
-    this.documentRepository.save(document);
+  String generateFingerprint(final Journal journal, final List<JournalItem> journalItems) {
+    try {
+      return this.fingerprintService.generate(journal, journalItems);
+    } catch (final Exception ex) {
+      throw new RequestValidationException(
+          String.format("Could not generate finger print for journal '%s'", journal.getSequence())
+      );
+    }
   }
 
-  @Transactional
-  public void process(final Long sequence, final TransitionJournalRequest request) {
-    final Action action = request.getAction();
-    final Journal journal = this.resolveAndValidate(sequence, action.expectedState());
-    journal.setState(action.desiredState());
-
-    if (action == Action.SCHEDULE) {
-      try {
-        journal.setFingerPrint(this.fingerprintService.generate(sequence));
-      } catch (final Exception ex) {
-        throw new RequestValidationException(
-            String.format("Could not generate finger print for journal '%s'", sequence)
-        );
+  void validateMimeType(final String mimeType) {
+    try {
+      final MediaType mediaType = MediaType.parseMediaType(mimeType);
+      if (!mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+        return;
       }
+    } catch (final InvalidMediaTypeException imtex) {
+      throw new RequestValidationException(String.format("Mime type '%s' is not valid.", mimeType));
     }
-
-    this.journalRepository.save(journal);
+    throw new RequestValidationException(String.format("Mime type '%s' is not concrete.", mimeType));
   }
 
   Journal resolveAndValidate(final Long sequence, final State expectedState) {
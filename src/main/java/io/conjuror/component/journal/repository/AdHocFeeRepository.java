@@ -35,6 +35,8 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AdHocFeeRepository extends CrudRepository<AdHocFee, Long> {
+  List<AdHocFee> findAllByPriceComponentCode(final String priceComponentCode);
+
   List<AdHocFee> findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
       final String priceComponentCode, final LocalDateTime referenceDate);
 
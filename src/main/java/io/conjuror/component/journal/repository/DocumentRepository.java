@@ -34,4 +34,6 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface DocumentRepository extends CrudRepository<Document, Long> {
   List<Document> findAllByJournalItemSequence(final Long journalItemSequence);
+
+  List<Document> findAllByContentIsNotNull();
 }
@@ -35,6 +35,8 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface EventFeeRepository extends CrudRepository<EventFee, Long> {
+  List<EventFee> findAllByPriceComponentCode(final String priceComponentCode);
+
   List<EventFee> findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
       final String priceComponentCode, final LocalDateTime referenceDate);
 
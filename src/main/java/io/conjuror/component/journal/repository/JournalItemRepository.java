@@ -27,10 +27,15 @@
 package io.conjuror.component.journal.repository;
 
 import io.conjuror.component.journal.data.JournalItem;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.repository.CrudRepository;
 
 public interface JournalItemRepository extends CrudRepository<JournalItem, Long> {
 
   List<JournalItem> findAllByJournalSequenceOrderBySequence(final Long journalSequence);
+
+  List<JournalItem> findAllByJournalSequenceIn(final Collection<Long> journalSequences);
+
+  List<JournalItem> findAllBySequenceIn(final Collection<Long> sequences);
 }
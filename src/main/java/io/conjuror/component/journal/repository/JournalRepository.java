@@ -28,8 +28,10 @@ package io.conjuror.component.journal.repository;
 
 import io.conjuror.component.journal.data.Journal;
 import io.conjuror.component.journal.data.Journal.State;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.gemfire.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
@@ -39,4 +41,15 @@ public interface JournalRepository extends PagingAndSortingRepository<Journal, L
   List<Journal> findAllByStateAndSequenceGreaterThan(final State state, final Long sequence);
 
   Optional<Journal> findByIdentifier(final String identifier);
+
+  List<Journal> findAllByIdentifierIn(final Collection<String> identifiers);
+
+  @Query("SELECT DISTINCT * FROM /journals j WHERE j.sequence < $1 ORDER BY j.sequence DESC LIMIT $2")
+  List<Journal> findSliceBefore(final Long sequence, final Integer limit);
+
+  @Query("SELECT DISTINCT * FROM /journals j WHERE j.sequence > $1 ORDER BY j.sequence LIMIT $2")
+  List<Journal> findSliceAfter(final Long sequence, final Integer limit);
+
+  @Query("SELECT DISTINCT * FROM /journals j WHERE j.state IN $1 ORDER BY j.sequence LIMIT 1")
+  List<Journal> findOldestInStates(final Collection<State> states);
 }
@@ -35,6 +35,8 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PercentageFeeRepository extends CrudRepository<PercentageFee, Long> {
+  List<PercentageFee> findAllByPriceComponentCode(final String priceComponentCode);
+
   List<PercentageFee> findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
       final String priceComponentCode, final LocalDateTime referenceDate);
 
@@ -0,0 +1,57 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.repository;
+
+import io.conjuror.component.journal.data.Posting;
+import java.util.List;
+import org.springframework.data.gemfire.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostingRepository extends CrudRepository<Posting, String> {
+
+  List<Posting> findAllByJournalSequence(final Long journalSequence);
+
+  List<Posting> findAllByReleasedAndJournalSequenceLessThanEqual(final Boolean released, final Long journalSequence);
+
+  @Query("SELECT DISTINCT * FROM /postings p WHERE p.released = true ORDER BY p.journalSequence DESC LIMIT 1")
+  List<Posting> findNewestReleased();
+
+  @Query("SELECT DISTINCT * FROM /postings p WHERE p.released = true AND p.journalSequence <= $1 "
+      + "AND (p.journalSequence > $2 OR (p.journalSequence = $2 AND p.key > $3)) "
+      + "ORDER BY p.journalSequence, p.key LIMIT $4")
+  List<Posting> findReleasedSlice(final Long watermark, final Long journalSequence, final String key,
+      final Integer limit);
+
+  List<Posting> findAllByAccountReferenceAndReleasedOrderByJournalSequence(
+      final String accountReference, final Boolean released);
+
+  @Query("SELECT DISTINCT * FROM /postings p WHERE p.statementKey > $1 AND p.statementKey < $2 "
+      + "AND p.released = true ORDER BY p.statementKey LIMIT $3")
+  List<Posting> findStatementPage(final String fromStatementKey, final String toStatementKey, final Integer limit);
+}
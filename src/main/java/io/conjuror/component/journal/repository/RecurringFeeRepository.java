@@ -35,6 +35,8 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RecurringFeeRepository extends CrudRepository<RecurringFee, Long> {
+  List<RecurringFee> findAllByPriceComponentCode(final String priceComponentCode);
+
   List<RecurringFee> findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
       final String priceComponentCode, final LocalDateTime referenceDate);
 
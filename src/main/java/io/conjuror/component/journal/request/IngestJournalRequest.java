@@ -0,0 +1,79 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.request;
+
+import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+@Setter
+public class IngestJournalRequest {
+  @NotNull
+  @Valid
+  private CreateJournalRequest journal;
+  @NotNull
+  @Size(min = 1)
+  private List<@Valid AddItemRequest> items;
+  private Action action;
+
+  public static Builder create(final CreateJournalRequest journal) {
+    return new Builder(journal);
+  }
+
+  @RequiredArgsConstructor
+  public static class Builder {
+    private final CreateJournalRequest journal;
+    private final List<AddItemRequest> items = new ArrayList<>();
+    private Action action;
+
+    public Builder addItem(final AddItemRequest item) {
+      this.items.add(item);
+      return this;
+    }
+
+    public Builder action(final Action action) {
+      this.action = action;
+      return this;
+    }
+
+    public IngestJournalRequest build() {
+      return new IngestJournalRequest(this.journal, this.items, this.action);
+    }
+  }
+}
@@ -27,16 +27,43 @@
 package io.conjuror.component.journal.service;
 
 import io.conjuror.component.journal.common.Balance;
+import io.conjuror.component.journal.common.MoneyAccumulator;
+import io.conjuror.component.journal.common.StatementLine;
 import io.conjuror.component.journal.data.Account;
-import io.conjuror.component.journal.data.Journal.State;
+import io.conjuror.component.journal.data.AccountSnapshot;
+import io.conjuror.component.journal.data.DailyBalance;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.data.Posting;
+import io.conjuror.component.journal.function.BalanceFunction;
 import io.conjuror.component.journal.repository.AccountRepository;
-import io.conjuror.component.journal.repository.JournalItemRepository;
-import io.conjuror.component.journal.repository.JournalRepository;
+import io.conjuror.component.journal.repository.AccountSnapshotRepository;
+import io.conjuror.component.journal.repository.DailyBalanceRepository;
+import io.conjuror.component.journal.repository.PostingRepository;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDate;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -44,85 +71,469 @@ import org.springframework.stereotype.Service;
 public class AccountService {
 
   private final ExchangeService exchangeService;
-  private final JournalRepository journalRepository;
-  private final JournalItemRepository journalItemRepository;
   private final AccountRepository accountRepository;
+  private final PostingRepository postingRepository;
+  private final AccountSnapshotRepository accountSnapshotRepository;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final Region<String, Account> accountRegion;
+  private final Region<String, Posting> postingRegion;
+  private final Region<String, DailyBalance> dailyBalanceRegion;
 
   @Value("${io.conjuror.base-currency:EUR}")
   private String baseCurrency;
 
+  @Value("${io.conjuror.balances.batch-size:1000}")
+  private Integer balanceBatchSize;
+
+  @Value("${io.conjuror.statements.page-size:500}")
+  private Integer statementPageSize;
+
   @Autowired
   public AccountService(
       final ExchangeService exchangeService,
-      final JournalRepository journalRepository,
-      final JournalItemRepository journalItemRepository,
-      final AccountRepository accountRepository) {
+      final AccountRepository accountRepository,
+      final PostingRepository postingRepository,
+      final AccountSnapshotRepository accountSnapshotRepository,
+      final DailyBalanceRepository dailyBalanceRepository,
+      @Qualifier("accounts") final Region<String, Account> accountRegion,
+      @Qualifier("postings") final Region<String, Posting> postingRegion,
+      @Qualifier("daily_balances") final Region<String, DailyBalance> dailyBalanceRegion) {
     super();
     this.exchangeService = exchangeService;
-    this.journalRepository = journalRepository;
-    this.journalItemRepository = journalItemRepository;
     this.accountRepository = accountRepository;
+    this.postingRepository = postingRepository;
+    this.accountSnapshotRepository = accountSnapshotRepository;
+    this.dailyBalanceRepository = dailyBalanceRepository;
+    this.accountRegion = accountRegion;
+    this.postingRegion = postingRegion;
+    this.dailyBalanceRegion = dailyBalanceRegion;
   }
 
   public Balance determineBalance(final String accountNumber, final String currencyCode) {
     final Account account = this.accountRepository.findById(accountNumber)
-        .orElseGet(() -> {
-          final Account newAccount = new Account();
-          newAccount.setNumber(accountNumber);
-          newAccount.setBalance(BigDecimal.ZERO);
-          newAccount.setLastSynchronizedSequence(Long.MIN_VALUE);
-          return newAccount;
+        .orElseGet(() -> this.restoreAccount(accountNumber));
+
+    final Balance balance = this.buildBalance(accountNumber, currencyCode,
+        this.currentBalance(account, currencyCode, LocalDate.now(Clock.systemUTC())));
+    balance.setLastSynchronizedSequence(account.getLastSynchronizedSequence());
+    return balance;
+  }
+
+  public void streamBalances(final Collection<String> accountNumbers, final String currencyCode,
+      final Consumer<List<Balance>> consumer) {
+    final List<String> uniqueAccountNumbers = new ArrayList<>(new LinkedHashSet<>(accountNumbers));
+    final LocalDate now = LocalDate.now(Clock.systemUTC());
+    for (int from = 0; from < uniqueAccountNumbers.size(); from += this.balanceBatchSize) {
+      final List<String> batch =
+          uniqueAccountNumbers.subList(from, Math.min(uniqueAccountNumbers.size(), from + this.balanceBatchSize));
+
+      final Map<String, Map<String, BigDecimal>> balancesByAccount =
+          this.aggregateBalances(new LinkedHashSet<>(batch), now);
+      consumer.accept(
+          batch.stream()
+              .map(accountNumber ->
+                  this.buildBalance(accountNumber, currencyCode,
+                      this.convert(balancesByAccount.get(accountNumber), currencyCode))
+              )
+              .collect(Collectors.toList())
+      );
+    }
+  }
+
+  public Balance determineBalance(final String accountNumber, final String currencyCode,
+      final LocalDate valueDate) {
+    return this.buildBalance(accountNumber, currencyCode,
+        this.convert(this.findClosingBalances(accountNumber, valueDate), currencyCode));
+  }
+
+  public List<Balance> computeBalances(final Collection<String> accountNumbers, final String currencyCode,
+      final LocalDate valueDate) {
+    return new LinkedHashSet<>(accountNumbers).stream()
+        .map(accountNumber -> this.determineBalance(accountNumber, currencyCode, valueDate))
+        .collect(Collectors.toList());
+  }
+
+  public List<Balance> computeBalances(final Collection<String> accountNumbers, final String currencyCode) {
+    final List<Balance> balances = new ArrayList<>();
+    this.streamBalances(accountNumbers, currencyCode, balances::addAll);
+    return balances;
+  }
+
+  public List<Posting> fetchPostings(final String accountNumber) {
+    return this.postingRepository
+        .findAllByAccountReferenceAndReleasedOrderByJournalSequence(accountNumber, Boolean.TRUE);
+  }
+
+  public void streamStatement(final String accountNumber, final LocalDate fromValueDate,
+      final LocalDate toValueDate, final Consumer<List<StatementLine>> consumer) {
+    final Map<String, MoneyAccumulator> runningBalances = new HashMap<>();
+    if (fromValueDate != null) {
+      runningBalances.putAll(MoneyAccumulator.of(
+          this.aggregateBalances(Set.of(accountNumber), fromValueDate.minusDays(1L)).get(accountNumber)));
+    }
+
+    String lastStatementKey = fromValueDate != null
+        ? Posting.statementKeyOf(accountNumber, fromValueDate, 0L)
+        : accountNumber + "#";
+    final String toStatementKey = toValueDate != null
+        ? Posting.statementKeyOf(accountNumber, toValueDate.plusDays(1L), 0L)
+        : accountNumber + "#:";
+    List<Posting> page;
+    do {
+      page = this.postingRepository.findStatementPage(lastStatementKey, toStatementKey, this.statementPageSize);
+      if (page.isEmpty()) {
+        return;
+      }
+
+      final List<StatementLine> lines = new ArrayList<>(page.size());
+      for (final Posting posting : page) {
+        if (!accountNumber.equals(posting.getAccountReference())) {
+          continue;
+        }
+        final StatementLine line = new StatementLine();
+        line.setAccountNumber(accountNumber);
+        line.setJournalSequence(posting.getJournalSequence());
+        line.setValueDate(posting.getValueDate());
+        line.setCurrencyCode(posting.getCurrencyCode());
+        line.setAmount(posting.getAmount());
+        line.setRunningBalance(
+            runningBalances.computeIfAbsent(posting.getCurrencyCode(), currencyCode -> new MoneyAccumulator())
+                .add(posting.getAmount())
+                .toBigDecimal());
+        lines.add(line);
+      }
+      if (!lines.isEmpty()) {
+        consumer.accept(lines);
+      }
+
+      lastStatementKey = page.get(page.size() - 1).getStatementKey();
+    } while (page.size() == this.statementPageSize);
+  }
+
+  public List<Posting> record(final List<Journal> journals, final List<JournalItem> journalItems) {
+    final Map<String, Posting> postings = this.derive(journals, journalItems);
+    final List<Posting> result = new ArrayList<>(postings.values());
+    this.postingRepository.saveAll(result);
+    return result;
+  }
+
+  public void discard(final List<Posting> postings) {
+    this.postingRepository.deleteAll(postings);
+  }
+
+  public void post(final Journal journal) {
+    this.post(this.postingRepository.findAllByJournalSequence(journal.getSequence()));
+  }
+
+  public void post(final List<Posting> postings) {
+    if (postings.isEmpty()) {
+      return;
+    }
+
+    final LocalDate now = LocalDate.now(Clock.systemUTC());
+    postings.stream()
+        .collect(Collectors.groupingBy(Posting::getAccountReference))
+        .forEach((accountNumber, accountPostings) -> {
+          this.post(accountNumber, accountPostings, now);
+          accountPostings.forEach(posting -> this.release(posting, now));
+          this.postingRepository.saveAll(accountPostings);
         });
+    this.recordDailyBalances(postings, now);
+  }
+
+  private void post(final String accountNumber, final List<Posting> postings, final LocalDate now) {
+    while (true) {
+      final Account existingAccount = this.accountRegion.get(accountNumber);
+      final Account account = existingAccount != null
+          ? this.copy(existingAccount)
+          : this.restoreAccount(accountNumber);
+      this.apply(account, postings, now);
+      if (existingAccount == null
+          ? this.accountRegion.putIfAbsent(accountNumber, account) == null
+          : this.accountRegion.replace(accountNumber, existingAccount, account)) {
+        return;
+      }
+    }
+  }
+
+  private Account copy(final Account account) {
+    final Account copy = this.newAccount(account.getNumber());
+    if (account.getBalances() != null) {
+      copy.getBalances().putAll(account.getBalances());
+    }
+    if (account.getPendingBalances() != null) {
+      copy.setPendingBalances(new HashMap<>());
+      account.getPendingBalances().forEach((valueDate, balances) ->
+          copy.getPendingBalances().put(valueDate, new HashMap<>(balances))
+      );
+    }
+    copy.setLastSynchronizedSequence(account.getLastSynchronizedSequence());
+    return copy;
+  }
+
+  void release(final Posting posting, final LocalDate now) {
+    posting.setReleased(Boolean.TRUE);
+    if (posting.getStatementKey() == null) {
+      posting.setStatementKey(Posting.statementKeyOf(posting.getAccountReference(),
+          posting.getValueDate() != null ? posting.getValueDate() : now, posting.getJournalSequence()));
+    }
+  }
 
-    final AtomicReference<BigDecimal> accountBalanceReference = new AtomicReference<>(account.getBalance());
-    final AtomicReference<Long> valueDateReference = new AtomicReference<>(account.getLastSynchronizedSequence());
+  Map<String, Posting> derive(final List<Journal> journals, final List<JournalItem> journalItems) {
+    final Map<Long, Journal> journalsBySequence = new HashMap<>();
+    journals.forEach(journal -> journalsBySequence.put(journal.getSequence(), journal));
+
+    final Map<String, Posting> postings = new HashMap<>();
+    final Map<String, MoneyAccumulator> amounts = new HashMap<>();
+    journalItems.forEach(journalItem -> {
+      final Journal journal = journalsBySequence.get(journalItem.getJournalSequence());
+      this.accumulate(postings, amounts, journal, journalItem.getSource().getAccountReference())
+          .subtract(journalItem.getSource().getAmount());
+      for (final JournalItem.Allocation target : journalItem.getTargets()) {
+        this.accumulate(postings, amounts, journal, target.getAccountReference()).add(target.getAmount());
+      }
+    });
+    amounts.forEach((key, amount) -> postings.get(key).setAmount(amount.toBigDecimal()));
+    return postings;
+  }
+
+  private MoneyAccumulator accumulate(final Map<String, Posting> postings, final Map<String, MoneyAccumulator> amounts,
+      final Journal journal, final String accountReference) {
+    final Posting posting = postings.computeIfAbsent(Posting.keyOf(accountReference, journal.getSequence()), key -> {
+      final Posting newPosting = new Posting();
+      newPosting.setKey(key);
+      newPosting.setAccountReference(accountReference);
+      newPosting.setJournalSequence(journal.getSequence());
+      newPosting.setCurrencyCode(journal.getCurrencyCode());
+      newPosting.setValueDate(journal.getValueDate());
+      newPosting.setAmount(BigDecimal.ZERO);
+      newPosting.setReleased(Boolean.FALSE);
+      newPosting.setStatementKey(
+          Posting.statementKeyOf(accountReference, journal.getValueDate(), journal.getSequence()));
+      return newPosting;
+    });
+    return amounts.computeIfAbsent(posting.getKey(), key -> new MoneyAccumulator());
+  }
+
+  private void recordDailyBalances(final List<Posting> postings, final LocalDate now) {
+    final Map<String, TreeMap<LocalDate, Map<String, MoneyAccumulator>>> movementsByAccount = new HashMap<>();
+    postings.forEach(posting ->
+        movementsByAccount
+            .computeIfAbsent(posting.getAccountReference(), accountNumber -> new TreeMap<>())
+            .computeIfAbsent(posting.getValueDate() != null ? posting.getValueDate() : now,
+                valueDate -> new HashMap<>())
+            .computeIfAbsent(posting.getCurrencyCode(), currencyCode -> new MoneyAccumulator())
+            .add(posting.getAmount())
+    );
+
+    movementsByAccount.forEach((accountNumber, movements) -> {
+      movements.forEach((valueDate, amounts) -> this.addMovements(accountNumber, valueDate, amounts));
+      this.closeDays(accountNumber, movements.firstKey());
+    });
+  }
+
+  private void addMovements(final String accountNumber, final LocalDate valueDate,
+      final Map<String, MoneyAccumulator> amounts) {
+    final String key = DailyBalance.keyOf(accountNumber, valueDate);
+    while (true) {
+      final DailyBalance existingDay = this.dailyBalanceRegion.get(key);
+      final DailyBalance day = existingDay != null
+          ? this.copy(existingDay, existingDay.getClosingBalances())
+          : this.newDailyBalance(accountNumber, valueDate);
+      final Map<String, MoneyAccumulator> movements = MoneyAccumulator.of(day.getMovements());
+      amounts.forEach((currency, amount) ->
+          movements.computeIfAbsent(currency, key -> new MoneyAccumulator()).add(amount.toBigDecimal()));
+      day.getMovements().putAll(MoneyAccumulator.toBigDecimals(movements));
+      if (existingDay == null
+          ? this.dailyBalanceRegion.putIfAbsent(key, day) == null
+          : this.dailyBalanceRegion.replace(key, existingDay, day)) {
+        return;
+      }
+    }
+  }
+
+  private void closeDays(final String accountNumber, final LocalDate earliest) {
+    boolean closed = false;
+    while (!closed) {
+      final Map<String, MoneyAccumulator> closingBalances =
+          MoneyAccumulator.of(this.findClosingBalances(accountNumber, earliest.minusDays(1L)));
+
+      final TreeMap<LocalDate, String> keys = new TreeMap<>();
+      this.dailyBalanceRepository.findAllByAccountReferenceAndValueDateGreaterThanEqual(accountNumber, earliest)
+          .forEach(day -> keys.put(day.getValueDate(), day.getKey()));
+
+      closed = true;
+      for (final String key : keys.values()) {
+        final DailyBalance existingDay = this.dailyBalanceRegion.get(key);
+        if (existingDay == null) {
+          closed = false;
+          break;
+        }
+        existingDay.getMovements().forEach((currency, amount) ->
+            closingBalances.computeIfAbsent(currency, code -> new MoneyAccumulator()).add(amount));
+        final Map<String, BigDecimal> closing = MoneyAccumulator.toBigDecimals(closingBalances);
+        if (closing.equals(existingDay.getClosingBalances())) {
+          continue;
+        }
+        if (!this.dailyBalanceRegion.replace(key, existingDay, this.copy(existingDay, closing))) {
+          closed = false;
+          break;
+        }
+      }
+    }
+  }
+
+  private DailyBalance copy(final DailyBalance dailyBalance, final Map<String, BigDecimal> closingBalances) {
+    final DailyBalance copy = this.newDailyBalance(dailyBalance.getAccountReference(), dailyBalance.getValueDate());
+    copy.getMovements().putAll(dailyBalance.getMovements());
+    copy.setClosingBalances(closingBalances != null ? new HashMap<>(closingBalances) : null);
+    return copy;
+  }
+
+  private Map<String, BigDecimal> findClosingBalances(final String accountNumber, final LocalDate valueDate) {
+    return this.dailyBalanceRepository.findLatest(accountNumber, valueDate).stream()
+        .findFirst()
+        .map(DailyBalance::getClosingBalances)
+        .orElse(null);
+  }
+
+  DailyBalance newDailyBalance(final String accountNumber, final LocalDate valueDate) {
+    final DailyBalance newDailyBalance = new DailyBalance();
+    newDailyBalance.setKey(DailyBalance.keyOf(accountNumber, valueDate));
+    newDailyBalance.setAccountReference(accountNumber);
+    newDailyBalance.setValueDate(valueDate);
+    newDailyBalance.setMovements(new HashMap<>());
+    return newDailyBalance;
+  }
+
+  private Map<String, Map<String, BigDecimal>> aggregateBalances(final Set<String> accountNumbers,
+      final LocalDate valueDate) {
+    final Map<String, Map<String, BigDecimal>> balancesByAccount = new HashMap<>();
+    try {
+      if (this.postingRegion.getAttributes().getPoolName() != null) {
+        final Map<String, Map<String, MoneyAccumulator>> accumulators = new HashMap<>();
+        final List<?> results = (List<?>) FunctionService.onRegion(this.postingRegion)
+            .setArguments(BalanceFunction.arguments(accountNumbers, valueDate))
+            .execute(BalanceFunction.ID)
+            .getResult();
+        results.forEach(result ->
+            ((Map<?, ?>) result).forEach((accountNumber, balances) ->
+                ((Map<?, ?>) balances).forEach((currency, amount) ->
+                    accumulators
+                        .computeIfAbsent((String) accountNumber, key -> new HashMap<>())
+                        .computeIfAbsent((String) currency, key -> new MoneyAccumulator())
+                        .add((BigDecimal) amount)
+                )
+            )
+        );
+        accumulators.forEach((accountNumber, balances) ->
+            balancesByAccount.put(accountNumber, MoneyAccumulator.toBigDecimals(balances)));
+      } else {
+        final QueryService queryService = this.postingRegion.getRegionService() instanceof ClientCache
+            ? ((ClientCache) this.postingRegion.getRegionService()).getLocalQueryService()
+            : this.postingRegion.getRegionService().getQueryService();
+        balancesByAccount.putAll(
+            BalanceFunction.aggregate(
+                (SelectResults<?>) queryService.newQuery(BalanceFunction.QUERY)
+                    .execute(new Object[]{accountNumbers}),
+                valueDate
+            )
+        );
+      }
+    } catch (final QueryException qex) {
+      throw new IllegalStateException("Could not compute balances.", qex);
+    }
+
+    return balancesByAccount;
+  }
+
+  private Account restoreAccount(final String accountNumber) {
+    final Account account = this.newAccount(accountNumber);
+    final Optional<AccountSnapshot> optionalSnapshot = this.accountSnapshotRepository.findById(accountNumber)
+        .filter(snapshot -> snapshot.getJournalWatermark() != null);
+    optionalSnapshot.ifPresent(snapshot -> {
+      if (snapshot.getBalances() != null) {
+        account.getBalances().putAll(snapshot.getBalances());
+      }
+      if (snapshot.getPendingBalances() != null) {
+        account.setPendingBalances(new HashMap<>());
+        snapshot.getPendingBalances().forEach((valueDate, balances) ->
+            account.getPendingBalances().put(valueDate, new HashMap<>(balances))
+        );
+      }
+    });
+    final Long watermark = optionalSnapshot.map(AccountSnapshot::getJournalWatermark).orElse(Long.MIN_VALUE);
 
     final LocalDate now = LocalDate.now(Clock.systemUTC());
-    this.journalRepository
-        .findAllByStateAndSequenceGreaterThan(State.RELEASED, account.getLastSynchronizedSequence())
-            .stream()
-            .filter(journal -> journal.getValueDate().equals(now) || journal.getValueDate().isBefore(now))
-            .forEach(journal -> {
-              this.journalItemRepository.findAllByJournalSequenceOrderBySequence(journal.getSequence())
-                  .forEach(journalItem -> {
-                    if (journalItem.getSource().getAccountReference().equals(accountNumber)) {
-                      accountBalanceReference
-                          .getAndAccumulate(
-                              this.exchangeService.estimateAmount(journalItem.getSource().getAmount(), journal.getCurrencyCode(), currencyCode),
-                              BigDecimal::subtract
-                          );
-                    }
-
-                    accountBalanceReference.getAndAccumulate(
-                        journalItem.getTargets()
-                            .stream()
-                            .filter(
-                                allocation -> allocation.getAccountReference().equals(accountNumber))
-                            .map(allocation ->
-                                this.exchangeService.estimateAmount(allocation.getAmount(), journal.getCurrencyCode(), currencyCode))
-                            .reduce(BigDecimal::add)
-                            .orElse(BigDecimal.ZERO),
-                        BigDecimal::add
-                    );
-                  });
-
-              valueDateReference.updateAndGet(sequence -> {
-                if (journal.getSequence() >= sequence) {
-                  return journal.getSequence();
-                } else {
-                  return sequence;
-                }
-              });
-            });
-
-    account.setBalance(accountBalanceReference.get());
-    account.setLastSynchronizedSequence(valueDateReference.get());
-    this.accountRepository.save(account);
+    this.apply(account,
+        this.fetchPostings(accountNumber).stream()
+            .filter(posting -> posting.getJournalSequence() > watermark)
+            .collect(Collectors.toList()),
+        now);
+    return account;
+  }
+
+  void apply(final Account account, final Collection<Posting> postings, final LocalDate now) {
+    final Map<String, MoneyAccumulator> balances = MoneyAccumulator.of(account.getBalances());
+    final Map<LocalDate, Map<String, MoneyAccumulator>> pendingBalances = new HashMap<>();
+    if (account.getPendingBalances() != null) {
+      account.getPendingBalances().forEach((valueDate, amounts) ->
+          pendingBalances.put(valueDate, MoneyAccumulator.of(amounts)));
+    }
+
+    for (final Posting posting : postings) {
+      final Map<String, MoneyAccumulator> target = posting.getValueDate() != null
+          && posting.getValueDate().isAfter(now)
+          ? pendingBalances.computeIfAbsent(posting.getValueDate(), valueDate -> new HashMap<>())
+          : balances;
+      target.computeIfAbsent(posting.getCurrencyCode(), currencyCode -> new MoneyAccumulator())
+          .add(posting.getAmount());
+
+      if (account.getLastSynchronizedSequence() == null
+          || posting.getJournalSequence() > account.getLastSynchronizedSequence()) {
+        account.setLastSynchronizedSequence(posting.getJournalSequence());
+      }
+    }
+
+    final Iterator<Entry<LocalDate, Map<String, MoneyAccumulator>>> iterator =
+        pendingBalances.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Entry<LocalDate, Map<String, MoneyAccumulator>> pending = iterator.next();
+      if (!pending.getKey().isAfter(now)) {
+        pending.getValue().forEach((currency, amount) ->
+            balances.computeIfAbsent(currency, code -> new MoneyAccumulator()).add(amount.toBigDecimal())
+        );
+        iterator.remove();
+      }
+    }
 
+    account.setBalances(MoneyAccumulator.toBigDecimals(balances));
+    if (!pendingBalances.isEmpty() || account.getPendingBalances() != null) {
+      final Map<LocalDate, Map<String, BigDecimal>> pendingAmounts = new HashMap<>();
+      pendingBalances.forEach((valueDate, amounts) ->
+          pendingAmounts.put(valueDate, MoneyAccumulator.toBigDecimals(amounts)));
+      account.setPendingBalances(pendingAmounts);
+    }
+  }
+
+  private BigDecimal currentBalance(final Account account, final String currencyCode, final LocalDate now) {
+    BigDecimal accountBalance = this.convert(account.getBalances(), currencyCode);
+    if (account.getPendingBalances() != null) {
+      for (final Entry<LocalDate, Map<String, BigDecimal>> pending : account.getPendingBalances().entrySet()) {
+        if (!pending.getKey().isAfter(now)) {
+          accountBalance = accountBalance.add(this.convert(pending.getValue(), currencyCode));
+        }
+      }
+    }
+    return accountBalance;
+  }
+
+  private Balance buildBalance(final String accountNumber, final String currencyCode,
+      final BigDecimal accountBalance) {
     final Balance balance = new Balance();
     balance.setAccountNumber(accountNumber);
     balance.setCurrencyCode(currencyCode);
-    balance.setAccountBalance(accountBalanceReference.get());
+    balance.setAccountBalance(accountBalance);
     balance.setReportingBalance(
         this.exchangeService.estimateAmount(
             balance.getAccountBalance(),
@@ -130,7 +541,26 @@ public class AccountService {
             this.baseCurrency
         )
     );
-
     return balance;
   }
+
+  private BigDecimal convert(final Map<String, BigDecimal> balances, final String currencyCode) {
+    BigDecimal result = BigDecimal.ZERO;
+    if (balances != null) {
+      for (final Entry<String, BigDecimal> balance : balances.entrySet()) {
+        result = result.add(
+            this.exchangeService.estimateAmount(balance.getValue(), balance.getKey(), currencyCode)
+        );
+      }
+    }
+    return result;
+  }
+
+  Account newAccount(final String accountNumber) {
+    final Account newAccount = new Account();
+    newAccount.setNumber(accountNumber);
+    newAccount.setBalances(new HashMap<>());
+    newAccount.setLastSynchronizedSequence(Long.MIN_VALUE);
+    return newAccount;
+  }
 }
@@ -27,23 +27,24 @@
 package io.conjuror.component.journal.service;
 
 import io.conjuror.component.journal.common.CalculationResponse;
+import io.conjuror.component.journal.common.FeeSchedule;
 import io.conjuror.component.journal.data.AdHocFee;
 import io.conjuror.component.journal.data.EventFee;
+import io.conjuror.component.journal.data.Fee;
 import io.conjuror.component.journal.data.PercentageFee;
 import io.conjuror.component.journal.data.PriceComponent;
-import io.conjuror.component.journal.data.RecurringFee;
 import io.conjuror.component.journal.exception.ResourceNotFoundException;
-import io.conjuror.component.journal.repository.AdHocFeeRepository;
-import io.conjuror.component.journal.repository.EventFeeRepository;
-import io.conjuror.component.journal.repository.PercentageFeeRepository;
 import io.conjuror.component.journal.repository.PriceComponentRepository;
-import io.conjuror.component.journal.repository.RecurringFeeRepository;
 import io.conjuror.component.journal.request.CalculationRequest;
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.time.LocalDateTime;
-import java.util.Comparator;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -54,80 +55,95 @@ public class CalculationService {
   private static final BigDecimal YEAR_DAY_COUNT = BigDecimal.valueOf(360.0D);
 
   private final PriceComponentRepository priceComponentRepository;
-  private final EventFeeRepository eventFeeRepository;
-  private final AdHocFeeRepository adHocFeeRepository;
-  private final RecurringFeeRepository recurringFeeRepository;
-  private final PercentageFeeRepository percentageFeeRepository;
+  private final FeeScheduleService feeScheduleService;
 
   @Autowired
   public CalculationService(
       final PriceComponentRepository priceComponentRepository,
-      final EventFeeRepository eventFeeRepository,
-      final AdHocFeeRepository adHocFeeRepository,
-      final RecurringFeeRepository recurringFeeRepository,
-      final PercentageFeeRepository percentageFeeRepository) {
+      final FeeScheduleService feeScheduleService) {
     super();
     this.priceComponentRepository = priceComponentRepository;
-    this.eventFeeRepository = eventFeeRepository;
-    this.adHocFeeRepository = adHocFeeRepository;
-    this.recurringFeeRepository = recurringFeeRepository;
-    this.percentageFeeRepository = percentageFeeRepository;
+    this.feeScheduleService = feeScheduleService;
   }
 
   public CalculationResponse process(final CalculationRequest calculationRequest) {
-    final CalculationResponse calculationResponse = new CalculationResponse();
-
     final PriceComponent priceComponent = this.priceComponentRepository.findById(
             calculationRequest.getPriceComponentCode())
-        .orElseThrow(() ->
-            new ResourceNotFoundException(
-                String.format(
-                    "Price component '%s' not found.",
-                    calculationRequest.getPriceComponentCode()
-                )
-            )
-        );
+        .orElseThrow(() -> this.priceComponentNotFound(calculationRequest.getPriceComponentCode()));
+
+    return this.calculate(
+        priceComponent,
+        this.feeScheduleService.findFeeSchedule(priceComponent)
+            .resolve(calculationRequest.getAgreementNumber(), calculationRequest.getReferenceDate())
+            .orElse(null),
+        calculationRequest
+    );
+  }
+
+  public List<CalculationResponse> process(final List<CalculationRequest> calculationRequests,
+      final boolean parallel) {
+    final Set<String> priceComponentCodes = calculationRequests.stream()
+        .map(CalculationRequest::getPriceComponentCode)
+        .collect(Collectors.toSet());
+
+    final Map<String, PriceComponent> priceComponents = new HashMap<>();
+    this.priceComponentRepository.findAllById(priceComponentCodes)
+        .forEach(priceComponent -> priceComponents.put(priceComponent.getCode(), priceComponent));
+
+    final Map<String, FeeSchedule<? extends Fee>> feeSchedules = new HashMap<>();
+    for (final String priceComponentCode : priceComponentCodes) {
+      final PriceComponent priceComponent = priceComponents.get(priceComponentCode);
+      if (priceComponent == null) {
+        throw this.priceComponentNotFound(priceComponentCode);
+      }
+      feeSchedules.put(priceComponentCode, this.feeScheduleService.findFeeSchedule(priceComponent));
+    }
+
+    final CalculationResponse[] calculationResponses = new CalculationResponse[calculationRequests.size()];
+    final IntStream indexes = IntStream.range(0, calculationRequests.size());
+    (parallel ? indexes.parallel() : indexes).forEach(index -> {
+      final CalculationRequest calculationRequest = calculationRequests.get(index);
+      final String priceComponentCode = calculationRequest.getPriceComponentCode();
+      calculationResponses[index] = this.calculate(
+          priceComponents.get(priceComponentCode),
+          feeSchedules.get(priceComponentCode)
+              .resolve(calculationRequest.getAgreementNumber(), calculationRequest.getReferenceDate())
+              .orElse(null),
+          calculationRequest
+      );
+    });
+
+    return Arrays.asList(calculationResponses);
+  }
+
+  private CalculationResponse calculate(final PriceComponent priceComponent, final Fee fee,
+      final CalculationRequest calculationRequest) {
+    final CalculationResponse calculationResponse = new CalculationResponse();
     calculationResponse.setPriceComponentCode(priceComponent.getCode());
     calculationResponse.setControlAccount(priceComponent.getControlAccount());
+    calculationResponse.setAmount(BigDecimal.ZERO);
+
+    if (fee == null) {
+      return calculationResponse;
+    }
 
     switch (priceComponent.getType()) {
       case EVENT:
         calculationResponse.setAmount(
-            this.calculateEventFee(
-                calculationRequest.getAgreementNumber(),
-                priceComponent.getCode(),
-                calculationRequest.getReferenceDate(),
-                calculationRequest.getUnderlying()
-            )
+            this.calculateEventFee((EventFee) fee, calculationRequest.getUnderlying())
         );
         break;
       case AD_HOC:
         calculationResponse.setAmount(
-            this.calculateAdHocFee(
-                calculationRequest.getAgreementNumber(),
-                priceComponent.getCode(),
-                calculationRequest.getReferenceDate(),
-                calculationRequest.getUnderlying()
-            )
+            this.calculateAdHocFee((AdHocFee) fee, calculationRequest.getUnderlying())
         );
         break;
       case RECURRING:
-        calculationResponse.setAmount(
-            this.determineRecurringFee(
-                calculationRequest.getAgreementNumber(),
-                priceComponent.getCode(),
-                calculationRequest.getReferenceDate()
-            )
-        );
+        calculationResponse.setAmount(fee.getAmount());
         break;
       case PERCENTAGE:
         calculationResponse.setAmount(
-            this.accruePercentageFee(
-                calculationRequest.getAgreementNumber(),
-                priceComponent.getCode(),
-                calculationRequest.getReferenceDate(),
-                calculationRequest.getUnderlying()
-            )
+            this.accruePercentageFee((PercentageFee) fee, calculationRequest.getUnderlying())
         );
         break;
     }
@@ -135,111 +151,34 @@ public class CalculationService {
     return calculationResponse;
   }
 
-  private BigDecimal calculateEventFee(final String agreementNumber, final String priceComponentCode,
-      final LocalDateTime referenceDate, final BigDecimal transactionAmount) {
-    final AtomicReference<BigDecimal> amountReference = new AtomicReference<>(BigDecimal.ZERO);
-
-    this.eventFeeRepository
-        .findByAgreementNumberAndPriceComponentCodeAndValidFromIsLessThanEqual(
-            agreementNumber, priceComponentCode, referenceDate
-        )
-        .or(() ->
-          this.eventFeeRepository
-              .findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
-                  priceComponentCode, referenceDate
-              )
-              .stream()
-              .max(Comparator.comparing(EventFee::getValidFrom))
-        )
-        .ifPresent(eventFee -> {
-          final BigDecimal percentage =
-              eventFee.getAmount().divide(BASE, MathContext.DECIMAL128);
-
-          final BigDecimal calculatedAmount =
-              transactionAmount.multiply(percentage, MathContext.DECIMAL128);
-          amountReference.set(calculatedAmount.max(eventFee.getMinimalValue()));
-        });
-
-    return amountReference.get();
+  private BigDecimal calculateEventFee(final EventFee eventFee, final BigDecimal transactionAmount) {
+    final BigDecimal percentage =
+        eventFee.getAmount().divide(BASE, MathContext.DECIMAL128);
+
+    final BigDecimal calculatedAmount =
+        transactionAmount.multiply(percentage, MathContext.DECIMAL128);
+    return calculatedAmount.max(eventFee.getMinimalValue());
   }
 
-  private BigDecimal calculateAdHocFee(final String agreementNumber, final String priceComponentCode,
-      final LocalDateTime referenceDate, final BigDecimal workUnits) {
-    final AtomicReference<BigDecimal> amountReference = new AtomicReference<>(BigDecimal.ZERO);
-
-    this.adHocFeeRepository
-        .findByAgreementNumberAndPriceComponentCodeAndValidFromIsLessThanEqual(
-            agreementNumber, priceComponentCode, referenceDate
-        )
-        .or(() ->
-            this.adHocFeeRepository
-                .findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
-                    priceComponentCode, referenceDate
-                )
-                .stream()
-                .max(Comparator.comparing(AdHocFee::getValidFrom))
-        )
-        .ifPresent(adHocFee -> {
-          amountReference.set(adHocFee.getAmount());
-          if (adHocFee.getWorkUnit()) {
-            amountReference.accumulateAndGet(
-                workUnits,
-                (amount, units) -> amount.multiply(units, MathContext.DECIMAL128)
-            );
-          }
-        });
-
-    return amountReference.get();
+  private BigDecimal calculateAdHocFee(final AdHocFee adHocFee, final BigDecimal workUnits) {
+    if (adHocFee.getWorkUnit()) {
+      return adHocFee.getAmount().multiply(workUnits, MathContext.DECIMAL128);
+    }
+    return adHocFee.getAmount();
   }
 
-  private BigDecimal determineRecurringFee(final String agreementNumber, final String priceComponentCode,
-      final LocalDateTime referenceDate) {
-    final AtomicReference<BigDecimal> amountReference = new AtomicReference<>(BigDecimal.ZERO);
-
-    this.recurringFeeRepository
-        .findByAgreementNumberAndPriceComponentCodeAndValidFromIsLessThanEqual(
-            agreementNumber, priceComponentCode, referenceDate
-        )
-        .or(() ->
-            this.recurringFeeRepository
-                .findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
-                    priceComponentCode, referenceDate
-                )
-                .stream()
-                .max(Comparator.comparing(RecurringFee::getValidFrom))
-        )
-        .ifPresent(recurringFee -> amountReference.set(recurringFee.getAmount()));
-
-    return amountReference.get();
+  private BigDecimal accruePercentageFee(final PercentageFee percentageFee, final BigDecimal currentBalance) {
+    final BigDecimal percentage =
+        percentageFee.getAmount().divide(BASE, MathContext.DECIMAL128);
+
+    return currentBalance
+        .multiply(percentage, MathContext.DECIMAL128)
+        .divide(YEAR_DAY_COUNT, MathContext.DECIMAL128);
   }
 
-  private BigDecimal accruePercentageFee(final String agreementNumber,  final String priceComponentCode,
-      final LocalDateTime referenceDate, final BigDecimal currentBalance) {
-    final AtomicReference<BigDecimal> amountReference = new AtomicReference<>(BigDecimal.ZERO);
-
-    this.percentageFeeRepository
-        .findByAgreementNumberAndPriceComponentCodeAndValidFromIsLessThanEqual(
-            agreementNumber, priceComponentCode, referenceDate
-        )
-        .or(() ->
-            this.percentageFeeRepository
-                .findAllByPriceComponentCodeAndValidFromIsLessThanEqualAndAgreementNumberIsNull(
-                    priceComponentCode, referenceDate
-                )
-                .stream()
-                .max(Comparator.comparing(PercentageFee::getValidFrom))
-        )
-        .ifPresent(percentageFee -> {
-          final BigDecimal percentage =
-              percentageFee.getAmount().divide(BASE, MathContext.DECIMAL128);
-
-          amountReference.set(
-              currentBalance
-                  .multiply(percentage, MathContext.DECIMAL128)
-                  .divide(YEAR_DAY_COUNT, MathContext.DECIMAL128)
-          );
-        });
-
-    return amountReference.get();
+  private ResourceNotFoundException priceComponentNotFound(final String priceComponentCode) {
+    return new ResourceNotFoundException(
+        String.format("Price component '%s' not found.", priceComponentCode)
+    );
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.data.Currency;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.RegionEvent;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.springframework.beans.factory.ObjectProvider;
+
+public class CurrencyInvalidationListener extends CacheListenerAdapter<String, Currency> {
+
+  private final ObjectProvider<ExchangeService> exchangeServiceProvider;
+
+  public CurrencyInvalidationListener(final ObjectProvider<ExchangeService> exchangeServiceProvider) {
+    super();
+    this.exchangeServiceProvider = exchangeServiceProvider;
+  }
+
+  @Override
+  public void afterCreate(final EntryEvent<String, Currency> event) {
+    this.invalidate();
+  }
+
+  @Override
+  public void afterUpdate(final EntryEvent<String, Currency> event) {
+    this.invalidate();
+  }
+
+  @Override
+  public void afterDestroy(final EntryEvent<String, Currency> event) {
+    this.invalidate();
+  }
+
+  @Override
+  public void afterInvalidate(final EntryEvent<String, Currency> event) {
+    this.invalidate();
+  }
+
+  @Override
+  public void afterRegionClear(final RegionEvent<String, Currency> event) {
+    this.invalidate();
+  }
+
+  @Override
+  public void afterRegionInvalidate(final RegionEvent<String, Currency> event) {
+    this.invalidate();
+  }
+
+  private void invalidate() {
+    this.exchangeServiceProvider.ifAvailable(ExchangeService::invalidate);
+  }
+}
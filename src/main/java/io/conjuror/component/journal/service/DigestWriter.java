@@ -0,0 +1,242 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.data.JournalItem.Allocation;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+final class DigestWriter {
+
+  static final String ALGORITHM = "SHA3-256";
+
+  private static final byte NULL_MARKER = 0;
+  private static final byte VALUE_MARKER = 1;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final ThreadLocal<DigestWriter> DIGEST_WRITER = ThreadLocal.withInitial(DigestWriter::new);
+
+  private final MessageDigest messageDigest;
+  private final CharsetEncoder charsetEncoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+  private boolean charCountFraming;
+
+  private DigestWriter() {
+    try {
+      this.messageDigest = MessageDigest.getInstance(ALGORITHM);
+    } catch (final NoSuchAlgorithmException nsaex) {
+      throw new IllegalStateException(nsaex);
+    }
+  }
+
+  static DigestWriter current() {
+    return acquire(false);
+  }
+
+  static DigestWriter charCountFramed() {
+    return acquire(true);
+  }
+
+  private static DigestWriter acquire(final boolean charCountFraming) {
+    final DigestWriter digestWriter = DIGEST_WRITER.get();
+    digestWriter.messageDigest.reset();
+    digestWriter.buffer.clear();
+    digestWriter.charCountFraming = charCountFraming;
+    return digestWriter;
+  }
+
+  static String toHex(final byte[] toConvert) {
+    final char[] hex = new char[toConvert.length * 2];
+    for (int index = 0; index < toConvert.length; index++) {
+      final int value = toConvert[index] & 0xFF;
+      hex[index * 2] = HEX_DIGITS[value >>> 4];
+      hex[index * 2 + 1] = HEX_DIGITS[value & 0x0F];
+    }
+    return new String(hex);
+  }
+
+  static byte[] fromHex(final String hex) {
+    if (hex.length() % 2 != 0) {
+      throw new IllegalArgumentException("Hex string must have an even length.");
+    }
+    final byte[] bytes = new byte[hex.length() / 2];
+    for (int index = 0; index < bytes.length; index++) {
+      final int high = Character.digit(hex.charAt(index * 2), 16);
+      final int low = Character.digit(hex.charAt(index * 2 + 1), 16);
+      if (high < 0 || low < 0) {
+        throw new IllegalArgumentException("Hex string contains invalid characters.");
+      }
+      bytes[index] = (byte) ((high << 4) | low);
+    }
+    return bytes;
+  }
+
+  void write(final byte value) {
+    this.ensureCapacity(Byte.BYTES);
+    this.buffer.put(value);
+  }
+
+  void write(final byte[] value) {
+    this.flush();
+    this.messageDigest.update(value);
+  }
+
+  void write(final ByteBuffer value) {
+    this.flush();
+    this.messageDigest.update(value);
+  }
+
+  void write(final Long value) {
+    if (value == null) {
+      this.write(NULL_MARKER);
+      return;
+    }
+    this.write(VALUE_MARKER);
+    this.ensureCapacity(Long.BYTES);
+    this.buffer.putLong(value);
+  }
+
+  void write(final String value) {
+    if (value == null) {
+      this.write(NULL_MARKER);
+      return;
+    }
+    this.write(VALUE_MARKER);
+    if (this.charCountFraming) {
+      this.writeCharCountFramed(value);
+      return;
+    }
+
+    this.ensureCapacity(Integer.BYTES);
+    this.buffer.putInt(encodedLength(value));
+    final int length = value.length();
+    for (int index = 0; index < length; index++) {
+      final char character = value.charAt(index);
+      if (character < 0x80) {
+        this.ensureCapacity(1);
+        this.buffer.put((byte) character);
+      } else if (character < 0x800) {
+        this.ensureCapacity(2);
+        this.buffer.put((byte) (0xC0 | (character >>> 6)));
+        this.buffer.put((byte) (0x80 | (character & 0x3F)));
+      } else if (Character.isHighSurrogate(character) && index + 1 < length
+          && Character.isLowSurrogate(value.charAt(index + 1))) {
+        final int codePoint = Character.toCodePoint(character, value.charAt(++index));
+        this.ensureCapacity(4);
+        this.buffer.put((byte) (0xF0 | (codePoint >>> 18)));
+        this.buffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+        this.buffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+        this.buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      } else {
+        this.ensureCapacity(3);
+        this.buffer.put((byte) (0xE0 | (character >>> 12)));
+        this.buffer.put((byte) (0x80 | ((character >>> 6) & 0x3F)));
+        this.buffer.put((byte) (0x80 | (character & 0x3F)));
+      }
+    }
+  }
+
+  private void writeCharCountFramed(final String value) {
+    this.ensureCapacity(Integer.BYTES);
+    this.buffer.putInt(value.length());
+
+    final CharBuffer chars = CharBuffer.wrap(value);
+    this.charsetEncoder.reset();
+    CoderResult coderResult;
+    do {
+      coderResult = this.charsetEncoder.encode(chars, this.buffer, true);
+      if (coderResult.isOverflow()) {
+        this.flush();
+      }
+    } while (coderResult.isOverflow());
+    while (this.charsetEncoder.flush(this.buffer).isOverflow()) {
+      this.flush();
+    }
+  }
+
+  void write(final JournalItem journalItem) {
+    this.write(journalItem.getJournalSequence());
+    this.write(journalItem.getSequence());
+    this.write(journalItem.getIdentifier());
+    this.write(journalItem.getSource());
+    this.write((long) journalItem.getTargets().size());
+    for (final Allocation target : journalItem.getTargets()) {
+      this.write(target);
+    }
+    this.write(journalItem.getPurpose());
+  }
+
+  byte[] digest() {
+    this.flush();
+    return this.messageDigest.digest();
+  }
+
+  private void write(final Allocation allocation) {
+    this.write(allocation.getAccountReference());
+    this.write(allocation.getAmount().toPlainString());
+  }
+
+  private static int encodedLength(final String value) {
+    final int length = value.length();
+    int encodedLength = 0;
+    for (int index = 0; index < length; index++) {
+      final char character = value.charAt(index);
+      if (character < 0x80) {
+        encodedLength += 1;
+      } else if (character < 0x800) {
+        encodedLength += 2;
+      } else if (Character.isHighSurrogate(character) && index + 1 < length
+          && Character.isLowSurrogate(value.charAt(index + 1))) {
+        encodedLength += 4;
+        index++;
+      } else {
+        encodedLength += 3;
+      }
+    }
+    return encodedLength;
+  }
+
+  private void ensureCapacity(final int bytes) {
+    if (this.buffer.remaining() < bytes) {
+      this.flush();
+    }
+  }
+
+  private void flush() {
+    this.buffer.flip();
+    this.messageDigest.update(this.buffer);
+    this.buffer.clear();
+  }
+}
@@ -0,0 +1,318 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.JournalConfiguration;
+import io.conjuror.component.journal.data.Document;
+import io.conjuror.component.journal.data.DocumentBlob;
+import io.conjuror.component.journal.data.DocumentChunk;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.exception.ResourceNotFoundException;
+import io.conjuror.component.journal.repository.DocumentRepository;
+import io.conjuror.component.journal.repository.JournalItemRepository;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.geode.cache.Region;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DocumentService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+
+  private final SnowflakeService snowflakeService;
+  private final DocumentRepository documentRepository;
+  private final JournalItemRepository journalItemRepository;
+  private final Region<Long, Document> documentRegion;
+  private final Region<String, DocumentBlob> documentBlobRegion;
+  private final Region<String, DocumentChunk> documentChunkRegion;
+
+  @Value("${io.conjuror.documents.chunk-size:524288}")
+  private Integer chunkSize;
+
+  @Value("${io.conjuror.documents.staging-directory:${java.io.tmpdir}}")
+  private String stagingDirectory;
+
+  @Autowired
+  public DocumentService(
+      final SnowflakeService snowflakeService,
+      final DocumentRepository documentRepository,
+      final JournalItemRepository journalItemRepository,
+      @Qualifier("documents") final Region<Long, Document> documentRegion,
+      @Qualifier("document_blobs") final Region<String, DocumentBlob> documentBlobRegion,
+      @Qualifier("document_chunks") final Region<String, DocumentChunk> documentChunkRegion) {
+    super();
+    this.snowflakeService = snowflakeService;
+    this.documentRepository = documentRepository;
+    this.journalItemRepository = journalItemRepository;
+    this.documentRegion = documentRegion;
+    this.documentBlobRegion = documentBlobRegion;
+    this.documentChunkRegion = documentChunkRegion;
+  }
+
+  public Document store(final Document document, final InputStream content) throws IOException {
+    final Path stagingFile = Files.createTempFile(Path.of(this.stagingDirectory), "document-", ".upload");
+    try {
+      final DigestWriter digestWriter = DigestWriter.current();
+      final byte[] buffer = new byte[this.chunkSize];
+      long bytes = 0L;
+      try (final OutputStream outputStream = Files.newOutputStream(stagingFile)) {
+        int length;
+        while ((length = content.readNBytes(buffer, 0, buffer.length)) > 0) {
+          digestWriter.write(ByteBuffer.wrap(buffer, 0, length));
+          outputStream.write(buffer, 0, length);
+          bytes += length;
+        }
+      }
+
+      final String contentHash = DigestWriter.toHex(digestWriter.digest());
+      if (!this.retain(contentHash)) {
+        this.retain(this.writeChunks(contentHash, stagingFile, bytes));
+      }
+
+      if (document.getBytes() == null) {
+        document.setBytes(bytes);
+      }
+      document.setContentHash(contentHash);
+      try {
+        this.documentRepository.save(document);
+      } catch (final RuntimeException rex) {
+        this.release(contentHash);
+        throw rex;
+      }
+      return document;
+    } finally {
+      Files.deleteIfExists(stagingFile);
+    }
+  }
+
+  public void remove(final Document document) {
+    this.documentRegion.destroy(document.getSequence(), document.getJournalSequence());
+    this.release(document.getContentHash());
+  }
+
+  public Document findDocument(final Long sequence, final Long itemSequence, final Long documentSequence) {
+    return Optional.ofNullable(this.documentRegion.get(documentSequence, sequence))
+        .filter(document -> sequence.equals(document.getJournalSequence())
+            && itemSequence.equals(document.getJournalItemSequence()))
+        .orElseThrow(() ->
+            new ResourceNotFoundException(String.format("Document '%s' not found.", documentSequence))
+        );
+  }
+
+  public Optional<DocumentBlob> findBlob(final String contentHash) {
+    return Optional.ofNullable(this.documentBlobRegion.get(contentHash));
+  }
+
+  public DocumentBlob findBlob(final Document document) {
+    return this.findBlob(document.getContentHash())
+        .orElseThrow(() ->
+            new IllegalStateException(
+                String.format("Content of document '%s' is missing.", document.getSequence())
+            )
+        );
+  }
+
+  public void read(final DocumentBlob documentBlob, final long start, final long end,
+      final OutputStream outputStream) throws IOException {
+    long position = start;
+    while (position <= end) {
+      final int index = (int) (position / documentBlob.getChunkSize());
+      final int offset = (int) (position % documentBlob.getChunkSize());
+
+      final DocumentChunk documentChunk =
+          this.documentChunkRegion.get(DocumentChunk.keyOf(documentBlob.getChunkSequence(), index));
+      if (documentChunk == null) {
+        throw new IllegalStateException(
+            String.format("Chunk %d of blob '%s' is missing.", index, documentBlob.getContentHash())
+        );
+      }
+
+      final int length = (int) Math.min(documentChunk.getData().length - offset, end - position + 1L);
+      outputStream.write(documentChunk.getData(), offset, length);
+      position += length;
+    }
+  }
+
+  public Integer migrateLegacyDocuments() throws IOException {
+    final List<Document> legacyDocuments = this.documentRepository.findAllByContentIsNotNull();
+    if (legacyDocuments.isEmpty()) {
+      return 0;
+    }
+
+    final Map<Long, Long> journalSequences = this.journalItemRepository.findAllBySequenceIn(
+        legacyDocuments.stream().map(Document::getJournalItemSequence).collect(Collectors.toSet())
+    ).stream()
+        .collect(Collectors.toMap(JournalItem::getSequence, JournalItem::getJournalSequence));
+
+    int migrated = 0;
+    for (final Document legacyDocument : legacyDocuments) {
+      final Long journalSequence = journalSequences.get(legacyDocument.getJournalItemSequence());
+      if (journalSequence == null) {
+        LOGGER.warn("Legacy document '{}' references unknown journal item '{}'.",
+            legacyDocument.getSequence(), legacyDocument.getJournalItemSequence());
+        continue;
+      }
+
+      final Document document = new Document();
+      document.setSequence(legacyDocument.getSequence());
+      document.setJournalSequence(journalSequence);
+      document.setJournalItemSequence(legacyDocument.getJournalItemSequence());
+      document.setMimeType(legacyDocument.getMimeType());
+
+      this.documentRegion.destroy(legacyDocument.getSequence());
+      try {
+        this.store(document,
+            new ByteArrayInputStream(legacyDocument.getContent().getBytes(StandardCharsets.UTF_8)));
+      } catch (final IOException | RuntimeException ex) {
+        this.documentRegion.put(legacyDocument.getSequence(), legacyDocument);
+        throw ex;
+      }
+      migrated++;
+    }
+
+    LOGGER.info("Migrated {} legacy document(s) to content-addressed blobs.", migrated);
+    return migrated;
+  }
+
+  private DocumentBlob writeChunks(final String contentHash, final Path stagingFile, final long bytes)
+      throws IOException {
+    final long chunkSequence = this.snowflakeService.next();
+    final byte[] buffer = new byte[this.chunkSize];
+    final List<String> chunkKeys = new ArrayList<>();
+    try (final InputStream inputStream = Files.newInputStream(stagingFile)) {
+      int length;
+      while ((length = inputStream.readNBytes(buffer, 0, buffer.length)) > 0) {
+        final DocumentChunk documentChunk = new DocumentChunk();
+        documentChunk.setKey(DocumentChunk.keyOf(chunkSequence, chunkKeys.size()));
+        documentChunk.setChunkSequence(chunkSequence);
+        documentChunk.setIndex(chunkKeys.size());
+        documentChunk.setData(Arrays.copyOf(buffer, length));
+
+        this.documentChunkRegion.put(documentChunk.getKey(), documentChunk);
+        chunkKeys.add(documentChunk.getKey());
+      }
+    } catch (final IOException | RuntimeException ex) {
+      this.documentChunkRegion.removeAll(chunkKeys);
+      throw ex;
+    }
+
+    final DocumentBlob stagedBlob = new DocumentBlob();
+    stagedBlob.setContentHash(contentHash);
+    stagedBlob.setChunkSequence(chunkSequence);
+    stagedBlob.setBytes(bytes);
+    stagedBlob.setChunkSize(this.chunkSize);
+    stagedBlob.setChunkCount(chunkKeys.size());
+    stagedBlob.setReferences(1L);
+    return stagedBlob;
+  }
+
+  private boolean retain(final String contentHash) {
+    while (true) {
+      final DocumentBlob existingBlob = this.documentBlobRegion.get(contentHash);
+      if (existingBlob == null) {
+        return false;
+      }
+
+      final DocumentBlob retainedBlob = this.copy(existingBlob, existingBlob.getReferences() + 1L);
+      if (this.documentBlobRegion.replace(contentHash, existingBlob, retainedBlob)) {
+        return true;
+      }
+    }
+  }
+
+  private void retain(final DocumentBlob stagedBlob) {
+    while (true) {
+      final DocumentBlob existingBlob =
+          this.documentBlobRegion.putIfAbsent(stagedBlob.getContentHash(), stagedBlob);
+      if (existingBlob == null) {
+        return;
+      }
+
+      final DocumentBlob retainedBlob = this.copy(existingBlob, existingBlob.getReferences() + 1L);
+      if (this.documentBlobRegion.replace(existingBlob.getContentHash(), existingBlob, retainedBlob)) {
+        this.documentChunkRegion.removeAll(this.chunkKeys(stagedBlob));
+        return;
+      }
+    }
+  }
+
+  private void release(final String contentHash) {
+    while (true) {
+      final DocumentBlob existingBlob = this.documentBlobRegion.get(contentHash);
+      if (existingBlob == null) {
+        return;
+      }
+
+      if (existingBlob.getReferences() > 1L) {
+        final DocumentBlob releasedBlob = this.copy(existingBlob, existingBlob.getReferences() - 1L);
+        if (this.documentBlobRegion.replace(contentHash, existingBlob, releasedBlob)) {
+          return;
+        }
+      } else if (this.documentBlobRegion.remove(contentHash, existingBlob)) {
+        this.documentChunkRegion.removeAll(this.chunkKeys(existingBlob));
+        return;
+      }
+    }
+  }
+
+  private List<String> chunkKeys(final DocumentBlob documentBlob) {
+    final List<String> chunkKeys = new ArrayList<>(documentBlob.getChunkCount());
+    for (int index = 0; index < documentBlob.getChunkCount(); index++) {
+      chunkKeys.add(DocumentChunk.keyOf(documentBlob.getChunkSequence(), index));
+    }
+    return chunkKeys;
+  }
+
+  private DocumentBlob copy(final DocumentBlob documentBlob, final Long references) {
+    final DocumentBlob copy = new DocumentBlob();
+    copy.setContentHash(documentBlob.getContentHash());
+    copy.setChunkSequence(documentBlob.getChunkSequence());
+    copy.setBytes(documentBlob.getBytes());
+    copy.setChunkSize(documentBlob.getChunkSize());
+    copy.setChunkCount(documentBlob.getChunkCount());
+    copy.setReferences(references);
+    return copy;
+  }
+}
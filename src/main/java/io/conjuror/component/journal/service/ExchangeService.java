@@ -26,62 +26,187 @@
  */
 package io.conjuror.component.journal.service;
 
+import io.conjuror.component.journal.JournalConfiguration;
 import io.conjuror.component.journal.data.Currency;
 import io.conjuror.component.journal.repository.CurrencyRepository;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import org.apache.geode.cache.Region;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
-public class ExchangeService {
+public class ExchangeService implements InitializingBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+
+  private static final int ALPHABET = 26;
+  private static final int UNKNOWN = -1;
 
   private final CurrencyRepository currencyRepository;
+  private final Region<String, Currency> currencyRegion;
+  private final AtomicReference<RateTableState> rateTableState = new AtomicReference<>(new RateTableState(0L, null));
 
   @Value("${io.conjuror.base-currency:EUR}")
   private String baseCurrency;
 
   @Autowired
-  public ExchangeService(final CurrencyRepository currencyRepository) {
+  public ExchangeService(
+      final CurrencyRepository currencyRepository,
+      @Qualifier("currencies") final Region<String, Currency> currencyRegion) {
     this.currencyRepository = currencyRepository;
+    this.currencyRegion = currencyRegion;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    if (this.currencyRegion.getAttributes().getPoolName() != null) {
+      this.currencyRegion.registerInterestRegex(".*");
+    }
   }
 
   public BigDecimal estimateAmount(final BigDecimal amount, final String sourceCurrencyCode,
       final String targetCurrencyCode) {
-    final AtomicReference<BigDecimal> amountReference = new AtomicReference<>(amount);
-    if (!sourceCurrencyCode.equals(targetCurrencyCode)) {
-      final Optional<Currency> optionalTargetCurrency =
-          this.currencyRepository.findById(targetCurrencyCode);
-      if (!sourceCurrencyCode.equals(this.baseCurrency)) {
-        this.currencyRepository.findById(sourceCurrencyCode)
-            .ifPresent(currency -> {
-              final BigDecimal tempAmount = amountReference.get();
-              amountReference.set(
-                  tempAmount.divide(currency.getRate(), MathContext.DECIMAL128)
-              );
-            });
+    if (sourceCurrencyCode.equals(targetCurrencyCode)) {
+      return amount;
+    }
+
+    final RateTable table = this.rateTable();
+    final int sourceIndex = table.indexOf(sourceCurrencyCode);
+    final int targetIndex = table.indexOf(targetCurrencyCode);
+
+    final BigDecimal factor;
+    if (sourceIndex != UNKNOWN && targetIndex != UNKNOWN) {
+      factor = table.crossRates[sourceIndex][targetIndex];
+    } else if (sourceIndex != UNKNOWN) {
+      factor = table.inverseRates[sourceIndex];
+    } else if (targetIndex != UNKNOWN) {
+      factor = table.rates[targetIndex];
+    } else {
+      return amount;
+    }
+
+    final BigDecimal exchangedAmount = amount.multiply(factor, MathContext.DECIMAL128);
+    if (targetIndex == UNKNOWN) {
+      return exchangedAmount;
+    }
+    return exchangedAmount.setScale(table.precisions[targetIndex], RoundingMode.HALF_EVEN);
+  }
+
+  public int precisionOf(final String currencyCode) {
+    final RateTable table = this.rateTable();
+    final int index = table.indexOf(currencyCode);
+    return index != UNKNOWN ? table.precisions[index] : 0;
+  }
+
+  public void invalidate() {
+    this.rateTableState.updateAndGet(state -> new RateTableState(state.generation + 1L, null));
+  }
+
+  private RateTable rateTable() {
+    final RateTableState currentState = this.rateTableState.get();
+    if (currentState.table != null) {
+      return currentState.table;
+    }
+
+    final List<Currency> currencies = new ArrayList<>();
+    this.currencyRepository.findAll().forEach(currency -> {
+      if (currency.getCode().equals(this.baseCurrency) || isValidRate(currency.getRate())) {
+        currencies.add(currency);
+      } else {
+        LOGGER.warn("Ignoring currency '{}' with invalid rate '{}'.", currency.getCode(), currency.getRate());
+      }
+    });
+    final RateTable loadedTable = new RateTable(currencies, this.baseCurrency);
+    this.rateTableState.compareAndSet(currentState, new RateTableState(currentState.generation, loadedTable));
+    return loadedTable;
+  }
+
+  private static boolean isValidRate(final BigDecimal rate) {
+    return rate != null && rate.signum() > 0;
+  }
+
+  private static int slotOf(final String code) {
+    if (code.length() != 3) {
+      return UNKNOWN;
+    }
+    int slot = 0;
+    for (int index = 0; index < 3; index++) {
+      final int letter = code.charAt(index) - 'A';
+      if (letter < 0 || letter >= ALPHABET) {
+        return UNKNOWN;
+      }
+      slot = slot * ALPHABET + letter;
+    }
+    return slot;
+  }
+
+  private static final class RateTableState {
+    private final long generation;
+    private final RateTable table;
+
+    private RateTableState(final long generation, final RateTable table) {
+      this.generation = generation;
+      this.table = table;
+    }
+  }
+
+  private static final class RateTable {
+    private final int[] slots = new int[ALPHABET * ALPHABET * ALPHABET];
+    private final Map<String, Integer> fallback = new HashMap<>();
+    private final BigDecimal[] rates;
+    private final BigDecimal[] inverseRates;
+    private final int[] precisions;
+    private final BigDecimal[][] crossRates;
+
+    private RateTable(final List<Currency> currencies, final String baseCurrency) {
+      final int size = currencies.size();
+      this.rates = new BigDecimal[size];
+      this.inverseRates = new BigDecimal[size];
+      this.precisions = new int[size];
+      this.crossRates = new BigDecimal[size][size];
+
+      for (int index = 0; index < size; index++) {
+        final Currency currency = currencies.get(index);
+        final int slot = slotOf(currency.getCode());
+        if (slot != UNKNOWN) {
+          this.slots[slot] = index + 1;
+        } else {
+          this.fallback.put(currency.getCode(), index);
+        }
+
+        final boolean base = currency.getCode().equals(baseCurrency);
+        this.rates[index] = base ? BigDecimal.ONE : currency.getRate();
+        this.inverseRates[index] =
+            base ? BigDecimal.ONE : BigDecimal.ONE.divide(currency.getRate(), MathContext.DECIMAL128);
+        this.precisions[index] = currency.getPrecision();
+      }
+
+      for (int source = 0; source < size; source++) {
+        for (int target = 0; target < size; target++) {
+          this.crossRates[source][target] =
+              this.rates[target].divide(this.rates[source], MathContext.DECIMAL128);
+        }
       }
-      if (!targetCurrencyCode.equals(this.baseCurrency)) {
-        optionalTargetCurrency
-            .ifPresent(currency -> {
-              final BigDecimal tempAmount = amountReference.get();
-              amountReference.set(
-                  tempAmount.multiply(currency.getRate(), MathContext.DECIMAL128)
-              );
-            });
+    }
+
+    private int indexOf(final String code) {
+      final int slot = slotOf(code);
+      if (slot != UNKNOWN) {
+        return this.slots[slot] - 1;
       }
-      optionalTargetCurrency
-          .ifPresent(targetCurrency -> {
-            final BigDecimal amountToRound = amountReference.get();
-            amountReference.set(
-                amountToRound.setScale(targetCurrency.getPrecision(), RoundingMode.HALF_EVEN)
-            );
-          });
+      return this.fallback.getOrDefault(code, UNKNOWN);
     }
-    return amountReference.get();
   }
 }
@@ -0,0 +1,128 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.FeeSchedule;
+import io.conjuror.component.journal.data.Fee;
+import io.conjuror.component.journal.data.PriceComponent;
+import io.conjuror.component.journal.repository.AdHocFeeRepository;
+import io.conjuror.component.journal.repository.EventFeeRepository;
+import io.conjuror.component.journal.repository.PercentageFeeRepository;
+import io.conjuror.component.journal.repository.RecurringFeeRepository;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.geode.cache.Region;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+@Service
+public class FeeScheduleService implements InitializingBean {
+
+  private final EventFeeRepository eventFeeRepository;
+  private final AdHocFeeRepository adHocFeeRepository;
+  private final RecurringFeeRepository recurringFeeRepository;
+  private final PercentageFeeRepository percentageFeeRepository;
+  private final List<Region<?, ?>> subscribedRegions;
+  private final ConcurrentMap<String, CachedFeeSchedule> feeSchedules = new ConcurrentHashMap<>();
+
+  private static final class CachedFeeSchedule {
+    private final PriceComponent.Type type;
+    private final FeeSchedule<? extends Fee> feeSchedule;
+
+    private CachedFeeSchedule(final PriceComponent.Type type, final FeeSchedule<? extends Fee> feeSchedule) {
+      this.type = type;
+      this.feeSchedule = feeSchedule;
+    }
+  }
+
+  @Autowired
+  public FeeScheduleService(
+      final EventFeeRepository eventFeeRepository,
+      final AdHocFeeRepository adHocFeeRepository,
+      final RecurringFeeRepository recurringFeeRepository,
+      final PercentageFeeRepository percentageFeeRepository,
+      @Qualifier("price_components") final Region<?, ?> priceComponentRegion,
+      @Qualifier("event_fees") final Region<?, ?> eventFeeRegion,
+      @Qualifier("ad_hoc_fees") final Region<?, ?> adHocFeeRegion,
+      @Qualifier("recurring_fees") final Region<?, ?> recurringFeeRegion,
+      @Qualifier("percentage_fees") final Region<?, ?> percentageFeeRegion) {
+    super();
+    this.eventFeeRepository = eventFeeRepository;
+    this.adHocFeeRepository = adHocFeeRepository;
+    this.recurringFeeRepository = recurringFeeRepository;
+    this.percentageFeeRepository = percentageFeeRepository;
+    this.subscribedRegions =
+        List.of(priceComponentRegion, eventFeeRegion, adHocFeeRegion, recurringFeeRegion, percentageFeeRegion);
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    this.subscribedRegions.forEach(region -> {
+      if (region.getAttributes().getPoolName() != null) {
+        region.registerInterestRegex(".*");
+      }
+    });
+  }
+
+  public FeeSchedule<? extends Fee> findFeeSchedule(final PriceComponent priceComponent) {
+    final CachedFeeSchedule cachedFeeSchedule = this.feeSchedules.get(priceComponent.getCode());
+    if (cachedFeeSchedule != null && cachedFeeSchedule.type == priceComponent.getType()) {
+      return cachedFeeSchedule.feeSchedule;
+    }
+    return this.feeSchedules.compute(priceComponent.getCode(), (code, currentFeeSchedule) ->
+        currentFeeSchedule != null && currentFeeSchedule.type == priceComponent.getType()
+            ? currentFeeSchedule
+            : new CachedFeeSchedule(priceComponent.getType(), this.loadFeeSchedule(priceComponent))
+    ).feeSchedule;
+  }
+
+  public void invalidate(final String priceComponentCode) {
+    this.feeSchedules.remove(priceComponentCode);
+  }
+
+  public void invalidateAll() {
+    this.feeSchedules.clear();
+  }
+
+  private FeeSchedule<? extends Fee> loadFeeSchedule(final PriceComponent priceComponent) {
+    switch (priceComponent.getType()) {
+      case EVENT:
+        return FeeSchedule.of(this.eventFeeRepository.findAllByPriceComponentCode(priceComponent.getCode()));
+      case AD_HOC:
+        return FeeSchedule.of(this.adHocFeeRepository.findAllByPriceComponentCode(priceComponent.getCode()));
+      case RECURRING:
+        return FeeSchedule.of(this.recurringFeeRepository.findAllByPriceComponentCode(priceComponent.getCode()));
+      case PERCENTAGE:
+        return FeeSchedule.of(this.percentageFeeRepository.findAllByPriceComponentCode(priceComponent.getCode()));
+      default:
+        return FeeSchedule.of(List.of());
+    }
+  }
+}
@@ -27,14 +27,18 @@
 package io.conjuror.component.journal.service;
 
 import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
 import io.conjuror.component.journal.data.JournalItem.Allocation;
 import io.conjuror.component.journal.exception.ResourceNotFoundException;
-import io.conjuror.component.journal.repository.JournalItemRepository;
 import io.conjuror.component.journal.repository.JournalRepository;
+import io.conjuror.component.journal.request.AddItemRequest;
+import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.IngestJournalRequest;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -44,16 +48,19 @@ import org.springframework.stereotype.Service;
 @Service
 public class FingerprintService {
 
+  private static final String VERSION_PREFIX = "3:";
+  private static final String CHAR_COUNT_VERSION_PREFIX = "2:";
+
   private final JournalRepository journalRepository;
-  private final JournalItemRepository journalItemRepository;
+  private final JournalItemService journalItemService;
 
   @Autowired
   public FingerprintService(
       final JournalRepository journalRepository,
-      final JournalItemRepository journalItemRepository) {
+      final JournalItemService journalItemService) {
     super();
     this.journalRepository = journalRepository;
-    this.journalItemRepository = journalItemRepository;
+    this.journalItemService = journalItemService;
   }
 
   public String generate(final Long sequence) throws Exception {
@@ -62,12 +69,67 @@ public class FingerprintService {
       throw new ResourceNotFoundException(String.format("Journal '%s' not found.", sequence));
     }
     final Journal journal = optionalJournal.get();
-    final String data = this.buildData(journal);
+    return this.generate(journal, this.journalItemService.findItems(journal.getSequence()));
+  }
 
-    return this.toHex(
-        MessageDigest.getInstance("SHA3-256")
-            .digest(data.getBytes(StandardCharsets.UTF_8))
-    );
+  public String generate(final Journal journal, final List<JournalItem> journalItems) throws Exception {
+    return this.generate(journal, journalItems, DigestWriter.current(), VERSION_PREFIX);
+  }
+
+  private String generate(final Journal journal, final List<JournalItem> journalItems,
+      final DigestWriter digestWriter, final String versionPrefix) {
+    digestWriter.write(journal.getSequence());
+    digestWriter.write(journal.getIdentifier());
+    digestWriter.write(journal.getCurrencyCode());
+    digestWriter.write(journal.getDescription());
+    digestWriter.write(DateTimeFormatter.ISO_DATE.format(journal.getValueDate()));
+    digestWriter.write(DateTimeFormatter.ISO_DATE.format(journal.getBookingDate()));
+    digestWriter.write(DateTimeFormatter.ISO_DATE_TIME.format(journal.getCreatedAt()));
+    digestWriter.write(journal.getCreatedBy());
+
+    digestWriter.write((long) journalItems.size());
+    for (final JournalItem journalItem : journalItems) {
+      digestWriter.write(journalItem);
+    }
+
+    return versionPrefix + this.toHex(digestWriter.digest());
+  }
+
+  public String digest(final CreateJournalRequest request) {
+    final DigestWriter digestWriter = DigestWriter.current();
+    this.write(digestWriter, request);
+    return this.toHex(digestWriter.digest());
+  }
+
+  public String requestDigest(final Journal journal) {
+    final CreateJournalRequest request = new CreateJournalRequest();
+    request.setIdentifier(journal.getIdentifier());
+    request.setCurrencyCode(journal.getCurrencyCode());
+    request.setDescription(journal.getDescription());
+    if (journal.getValueDate() != null) {
+      request.setValueDate(DateTimeFormatter.ISO_DATE.format(journal.getValueDate()));
+    }
+    if (journal.getBookingDate() != null) {
+      request.setBookingDate(DateTimeFormatter.ISO_DATE.format(journal.getBookingDate()));
+    }
+    return this.digest(request);
+  }
+
+  public String digest(final IngestJournalRequest request) {
+    final DigestWriter digestWriter = DigestWriter.current();
+    this.write(digestWriter, request.getJournal());
+    digestWriter.write(request.getAction() != null ? request.getAction().name() : null);
+    digestWriter.write((long) request.getItems().size());
+    for (final AddItemRequest item : request.getItems()) {
+      digestWriter.write(item.getIdentifier());
+      this.write(digestWriter, item.getSource());
+      digestWriter.write((long) item.getTargets().size());
+      for (final AddItemRequest.Allocation target : item.getTargets()) {
+        this.write(digestWriter, target);
+      }
+      digestWriter.write(item.getPurpose());
+    }
+    return this.toHex(digestWriter.digest());
   }
 
   public boolean valid(final String fingerprint, final Long sequence) {
@@ -75,15 +137,46 @@ public class FingerprintService {
       return Boolean.FALSE;
     }
 
+    final Optional<Journal> optionalJournal = this.journalRepository.findById(sequence);
+    if (optionalJournal.isEmpty()) {
+      return Boolean.FALSE;
+    }
+    return this.valid(
+        fingerprint,
+        optionalJournal.get(),
+        this.journalItemService.findItems(sequence)
+    );
+  }
+
+  public boolean valid(final String fingerprint, final Journal journal, final List<JournalItem> journalItems) {
+    if (fingerprint == null || fingerprint.isBlank()) {
+      return Boolean.FALSE;
+    }
+
     try {
-      final String generatedFingerprint = this.generate(sequence);
-      return fingerprint.equals(generatedFingerprint);
+      if (fingerprint.startsWith(VERSION_PREFIX)) {
+        return fingerprint.equals(this.generate(journal, journalItems));
+      }
+      if (fingerprint.startsWith(CHAR_COUNT_VERSION_PREFIX)) {
+        return fingerprint.equals(
+            this.generate(journal, journalItems, DigestWriter.charCountFramed(), CHAR_COUNT_VERSION_PREFIX));
+      }
+      return fingerprint.equals(this.generateLegacy(journal, journalItems));
     } catch (final Exception ex) {
       return Boolean.FALSE;
     }
   }
 
-  String buildData(final Journal journal) {
+  String generateLegacy(final Journal journal, final List<JournalItem> journalItems) throws Exception {
+    final String data = this.buildData(journal, journalItems);
+
+    return this.toHex(
+        MessageDigest.getInstance(DigestWriter.ALGORITHM)
+            .digest(data.getBytes(StandardCharsets.UTF_8))
+    );
+  }
+
+  String buildData(final Journal journal, final List<JournalItem> journalItems) {
     final String[] dataContainer = new String[9];
     dataContainer[0] = journal.getSequence().toString();
     dataContainer[1] = journal.getIdentifier();
@@ -95,7 +188,7 @@ public class FingerprintService {
     dataContainer[7] = journal.getCreatedBy();
 
     dataContainer[8] =
-        this.journalItemRepository.findAllByJournalSequenceOrderBySequence(journal.getSequence())
+        journalItems
           .stream()
           .map(journalItem ->
             String.join(
@@ -132,10 +225,19 @@ public class FingerprintService {
   }
 
   String toHex(final byte[] toConvert) {
-    final StringBuilder hexCollector = new StringBuilder();
-    for (final byte b : toConvert) {
-      hexCollector.append(String.format("%02x", b));
-    }
-    return hexCollector.toString();
+    return DigestWriter.toHex(toConvert);
+  }
+
+  private void write(final DigestWriter digestWriter, final CreateJournalRequest request) {
+    digestWriter.write(request.getIdentifier());
+    digestWriter.write(request.getCurrencyCode());
+    digestWriter.write(request.getDescription());
+    digestWriter.write(request.getValueDate());
+    digestWriter.write(request.getBookingDate());
+  }
+
+  private void write(final DigestWriter digestWriter, final AddItemRequest.Allocation allocation) {
+    digestWriter.write(allocation.getAccountReference());
+    digestWriter.write(allocation.getAmount().toPlainString());
   }
 }
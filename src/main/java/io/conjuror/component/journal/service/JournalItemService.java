@@ -0,0 +1,83 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.function.JournalItemsFunction;
+import io.conjuror.component.journal.repository.JournalItemRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JournalItemService {
+
+  private final JournalItemRepository journalItemRepository;
+  private final Region<Long, Journal> journalRegion;
+  private final Region<Long, JournalItem> itemRegion;
+
+  @Autowired
+  public JournalItemService(
+      final JournalItemRepository journalItemRepository,
+      @Qualifier("journals") final Region<Long, Journal> journalRegion,
+      @Qualifier("items") final Region<Long, JournalItem> itemRegion) {
+    super();
+    this.journalItemRepository = journalItemRepository;
+    this.journalRegion = journalRegion;
+    this.itemRegion = itemRegion;
+  }
+
+  public List<JournalItem> findItems(final Long journalSequence) {
+    if (this.journalRegion.getAttributes().getPoolName() == null) {
+      return this.journalItemRepository.findAllByJournalSequenceOrderBySequence(journalSequence);
+    }
+
+    final List<?> results = (List<?>) FunctionService.onRegion(this.journalRegion)
+        .withFilter(Set.of(journalSequence))
+        .setArguments(journalSequence)
+        .execute(JournalItemsFunction.ID)
+        .getResult();
+
+    final List<JournalItem> journalItems = new ArrayList<>();
+    results.forEach(result -> ((List<?>) result).forEach(journalItem -> journalItems.add((JournalItem) journalItem)));
+    journalItems.sort(Comparator.comparing(JournalItem::getSequence));
+    return journalItems;
+  }
+
+  public Optional<JournalItem> findItem(final Long journalSequence, final Long itemSequence) {
+    return Optional.ofNullable(this.itemRegion.get(itemSequence, journalSequence))
+        .filter(journalItem -> journalSequence.equals(journalItem.getJournalSequence()));
+  }
+}
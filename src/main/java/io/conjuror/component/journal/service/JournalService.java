@@ -26,7 +26,9 @@
  */
 package io.conjuror.component.journal.service;
 
+import io.conjuror.component.journal.common.JournalEntry;
 import io.conjuror.component.journal.common.TypedPage;
+import io.conjuror.component.journal.common.TypedSlice;
 import io.conjuror.component.journal.data.Document;
 import io.conjuror.component.journal.data.Journal;
 import io.conjuror.component.journal.data.JournalItem;
@@ -34,7 +36,11 @@ import io.conjuror.component.journal.exception.ResourceNotFoundException;
 import io.conjuror.component.journal.repository.DocumentRepository;
 import io.conjuror.component.journal.repository.JournalItemRepository;
 import io.conjuror.component.journal.repository.JournalRepository;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -48,16 +54,19 @@ public class JournalService {
   private final JournalRepository journalRepository;
   private final JournalItemRepository journalItemRepository;
   private final DocumentRepository documentRepository;
+  private final JournalItemService journalItemService;
 
   @Autowired
   public JournalService(
       final JournalRepository journalRepository,
       final JournalItemRepository journalItemRepository,
-      final DocumentRepository documentRepository) {
+      final DocumentRepository documentRepository,
+      final JournalItemService journalItemService) {
     super();
     this.journalRepository = journalRepository;
     this.journalItemRepository = journalItemRepository;
     this.documentRepository = documentRepository;
+    this.journalItemService = journalItemService;
   }
 
   public TypedPage<Journal> fetchJournals(final Integer page, final Integer size) {
@@ -69,6 +78,39 @@ public class JournalService {
     return TypedPage.of(resultPage.getContent(), resultPage.getTotalPages(), resultPage.getTotalElements());
   }
 
+  public TypedSlice<Journal> fetchJournals(final Long after, final Integer size) {
+    final List<Journal> journals =
+        this.journalRepository.findSliceBefore(after != null ? after : Long.MAX_VALUE, size);
+
+    return TypedSlice.of(journals,
+        journals.size() < size ? null : journals.get(journals.size() - 1).getSequence());
+  }
+
+  public void exportJournals(final Integer size, final Consumer<List<JournalEntry>> consumer) {
+    Long after = null;
+    do {
+      final TypedSlice<Journal> slice = this.fetchJournals(after, size);
+      if (slice.getElements().isEmpty()) {
+        return;
+      }
+
+      final Map<Long, List<JournalItem>> itemsByJournal =
+          this.journalItemRepository.findAllByJournalSequenceIn(
+              slice.getElements().stream().map(Journal::getSequence).collect(Collectors.toList())
+          ).stream()
+              .sorted(Comparator.comparing(JournalItem::getSequence))
+              .collect(Collectors.groupingBy(JournalItem::getJournalSequence));
+
+      consumer.accept(
+          slice.getElements().stream()
+              .map(journal ->
+                  JournalEntry.of(journal, itemsByJournal.getOrDefault(journal.getSequence(), List.of())))
+              .collect(Collectors.toList())
+      );
+      after = slice.getNext();
+    } while (after != null);
+  }
+
   public Journal findJournal(final Long sequence) {
     return this.journalRepository.findById(sequence)
         .orElseThrow(() ->
@@ -78,10 +120,11 @@ public class JournalService {
 
   public List<JournalItem> findAllItemsByJournal(final Long sequence) {
     final Journal journal = this.findJournal(sequence);
-    return this.journalItemRepository.findAllByJournalSequenceOrderBySequence(journal.getSequence());
+    return this.journalItemService.findItems(journal.getSequence());
   }
 
   public List<Document> findAllDocumentsByJournalItem(final Long sequence) {
     return this.documentRepository.findAllByJournalItemSequence(sequence);
   }
+
 }
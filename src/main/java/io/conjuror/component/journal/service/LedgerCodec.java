@@ -0,0 +1,217 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.JournalEntry;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.Journal.State;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.data.JournalItem.Allocation;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class LedgerCodec {
+
+  private static final byte VERSION = 1;
+  private static final int NULL_LENGTH = -1;
+
+  private LedgerCodec() {
+    super();
+  }
+
+  static byte[] encode(final Journal journal, final List<JournalItem> journalItems) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + journalItems.size() * 192);
+    try (final DataOutputStream output = new DataOutputStream(bytes)) {
+      output.writeByte(VERSION);
+      output.writeLong(journal.getSequence());
+      writeString(output, journal.getIdentifier());
+      writeString(output, journal.getDescription());
+      writeDate(output, journal.getValueDate());
+      writeDate(output, journal.getBookingDate());
+      writeString(output, journal.getCurrencyCode());
+      writeDateTime(output, journal.getCreatedAt());
+      writeString(output, journal.getCreatedBy());
+      writeDateTime(output, journal.getReleasedAt());
+      writeString(output, journal.getReleasedBy());
+      writeString(output, journal.getFingerPrint());
+      writeString(output, journal.getMerkleRoot());
+
+      output.writeInt(journalItems.size());
+      for (final JournalItem journalItem : journalItems) {
+        output.writeLong(journalItem.getSequence());
+        writeString(output, journalItem.getIdentifier());
+        writeString(output, journalItem.getPurpose());
+        output.writeLong(journalItem.getPosition() != null ? journalItem.getPosition() : -1L);
+        writeString(output, journalItem.getLeafHash());
+        writeAllocation(output, journalItem.getSource());
+        output.writeInt(journalItem.getTargets().size());
+        for (final Allocation target : journalItem.getTargets()) {
+          writeAllocation(output, target);
+        }
+      }
+    } catch (final IOException ioex) {
+      throw new UncheckedIOException(ioex);
+    }
+    return bytes.toByteArray();
+  }
+
+  static long peekSequence(final ByteBuffer payload) {
+    return payload.getLong(payload.position() + Byte.BYTES);
+  }
+
+  static JournalEntry decode(final ByteBuffer payload) {
+    final byte version = payload.get();
+    if (version != VERSION) {
+      throw new IllegalStateException(String.format("Unsupported ledger record version %d.", version));
+    }
+
+    final Journal journal = new Journal();
+    journal.setSequence(payload.getLong());
+    journal.setIdentifier(readString(payload));
+    journal.setDescription(readString(payload));
+    journal.setValueDate(readDate(payload));
+    journal.setBookingDate(readDate(payload));
+    journal.setCurrencyCode(readString(payload));
+    journal.setState(State.RELEASED);
+    journal.setCreatedAt(readDateTime(payload));
+    journal.setCreatedBy(readString(payload));
+    journal.setReleasedAt(readDateTime(payload));
+    journal.setReleasedBy(readString(payload));
+    journal.setFingerPrint(readString(payload));
+    journal.setMerkleRoot(readString(payload));
+
+    final int itemCount = payload.getInt();
+    journal.setItemCount((long) itemCount);
+    final List<JournalItem> journalItems = new ArrayList<>(itemCount);
+    for (int index = 0; index < itemCount; index++) {
+      final JournalItem journalItem = new JournalItem();
+      journalItem.setJournalSequence(journal.getSequence());
+      journalItem.setSequence(payload.getLong());
+      journalItem.setIdentifier(readString(payload));
+      journalItem.setPurpose(readString(payload));
+      final long position = payload.getLong();
+      journalItem.setPosition(position >= 0L ? position : null);
+      journalItem.setLeafHash(readString(payload));
+      journalItem.setSource(readAllocation(payload));
+      final int targetCount = payload.getInt();
+      final List<Allocation> targets = new ArrayList<>(targetCount);
+      for (int targetIndex = 0; targetIndex < targetCount; targetIndex++) {
+        targets.add(readAllocation(payload));
+      }
+      journalItem.setTargets(targets);
+      journalItems.add(journalItem);
+    }
+
+    return JournalEntry.of(journal, journalItems);
+  }
+
+  private static void writeAllocation(final DataOutputStream output, final Allocation allocation)
+      throws IOException {
+    writeString(output, allocation.getAccountReference());
+    final byte[] unscaledValue = allocation.getAmount().unscaledValue().toByteArray();
+    output.writeInt(allocation.getAmount().scale());
+    output.writeByte(unscaledValue.length);
+    output.write(unscaledValue);
+  }
+
+  private static Allocation readAllocation(final ByteBuffer payload) {
+    final Allocation allocation = new Allocation();
+    allocation.setAccountReference(readString(payload));
+    final int scale = payload.getInt();
+    final byte[] unscaledValue = new byte[payload.get() & 0xFF];
+    payload.get(unscaledValue);
+    allocation.setAmount(new BigDecimal(new BigInteger(unscaledValue), scale));
+    return allocation;
+  }
+
+  private static void writeString(final DataOutputStream output, final String value) throws IOException {
+    if (value == null) {
+      output.writeInt(NULL_LENGTH);
+      return;
+    }
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(final ByteBuffer payload) {
+    final int length = payload.getInt();
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    final String value;
+    if (payload.hasArray()) {
+      value = new String(
+          payload.array(), payload.arrayOffset() + payload.position(), length, StandardCharsets.UTF_8);
+      payload.position(payload.position() + length);
+    } else {
+      final byte[] bytes = new byte[length];
+      payload.get(bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return value;
+  }
+
+  private static void writeDate(final DataOutputStream output, final LocalDate value) throws IOException {
+    output.writeLong(value != null ? value.toEpochDay() : Long.MIN_VALUE);
+  }
+
+  private static LocalDate readDate(final ByteBuffer payload) {
+    final long epochDay = payload.getLong();
+    return epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null;
+  }
+
+  private static void writeDateTime(final DataOutputStream output, final LocalDateTime value) throws IOException {
+    if (value == null) {
+      output.writeLong(Long.MIN_VALUE);
+      output.writeLong(0L);
+      return;
+    }
+    output.writeLong(value.toLocalDate().toEpochDay());
+    output.writeLong(value.toLocalTime().toNanoOfDay());
+  }
+
+  private static LocalDateTime readDateTime(final ByteBuffer payload) {
+    final long epochDay = payload.getLong();
+    final long nanoOfDay = payload.getLong();
+    if (epochDay == Long.MIN_VALUE) {
+      return null;
+    }
+    return LocalDateTime.of(LocalDate.ofEpochDay(epochDay), LocalTime.ofNanoOfDay(nanoOfDay));
+  }
+}
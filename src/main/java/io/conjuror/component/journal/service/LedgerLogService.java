@@ -0,0 +1,351 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.JournalConfiguration;
+import io.conjuror.component.journal.common.JournalEntry;
+import io.conjuror.component.journal.common.LedgerAudit;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LedgerLogService implements InitializingBean, DisposableBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final int HEADER_BYTES = Integer.BYTES * 2;
+  private static final int CHAIN_BYTES = 32;
+  private static final byte[] GENESIS = new byte[CHAIN_BYTES];
+
+  private final ConcurrentSkipListMap<Long, Long> offsetIndex = new ConcurrentSkipListMap<>();
+  private final List<Segment> segments = new CopyOnWriteArrayList<>();
+  private final Queue<JournalEntry> deferredEntries = new ConcurrentLinkedQueue<>();
+  private byte[] headHash = GENESIS;
+
+  @Value("${io.conjuror.ledger.directory:}")
+  private String directory;
+  @Value("${io.conjuror.ledger.segment-size:67108864}")
+  private Integer segmentSize;
+
+  public LedgerLogService() {
+    super();
+  }
+
+  private static final class Segment {
+    private final int number;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private volatile int limit;
+
+    private Segment(final int number, final FileChannel channel, final MappedByteBuffer buffer) {
+      this.number = number;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+  }
+
+  @Override
+  public void afterPropertiesSet() throws IOException {
+    if (this.directory.isBlank()) {
+      throw new IllegalStateException(
+          "Property 'io.conjuror.ledger.directory' must point to a durable directory of this member."
+      );
+    }
+
+    final Path path = Paths.get(this.directory);
+    Files.createDirectories(path);
+
+    final List<Path> segmentPaths;
+    try (final Stream<Path> files = Files.list(path)) {
+      segmentPaths = files
+          .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    for (int number = 0; number < segmentPaths.size(); number++) {
+      final Segment segment = this.open(segmentPaths.get(number), number, Files.size(segmentPaths.get(number)));
+      this.segments.add(segment);
+      this.recover(segment, number == segmentPaths.size() - 1);
+    }
+    if (this.segments.isEmpty()) {
+      this.segments.add(this.open(this.segmentPath(0), 0, this.segmentSize));
+    }
+
+    LOGGER.info("Ledger log opened with {} segment(s) and {} record(s).",
+        this.segments.size(), this.offsetIndex.size());
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    for (final Segment segment : this.segments) {
+      segment.buffer.force();
+      segment.channel.close();
+    }
+  }
+
+  public void archive(final List<JournalEntry> entries) {
+    for (final JournalEntry entry : entries) {
+      try {
+        this.append(entry.getJournal(), entry.getItems());
+      } catch (final RuntimeException rex) {
+        LOGGER.warn("Could not archive journal '{}', deferring it.", entry.getJournal().getSequence(), rex);
+        this.deferredEntries.add(entry);
+      }
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${io.conjuror.ledger.retry-interval:60000}",
+      fixedDelayString = "${io.conjuror.ledger.retry-interval:60000}"
+  )
+  public void archiveDeferred() {
+    for (int remaining = this.deferredEntries.size(); remaining > 0; remaining--) {
+      final JournalEntry entry = this.deferredEntries.poll();
+      if (entry == null) {
+        return;
+      }
+      try {
+        this.append(entry.getJournal(), entry.getItems());
+      } catch (final RuntimeException rex) {
+        LOGGER.warn("Could not archive deferred journal '{}'.", entry.getJournal().getSequence(), rex);
+        this.deferredEntries.add(entry);
+        return;
+      }
+    }
+  }
+
+  public synchronized void append(final Journal journal, final List<JournalItem> journalItems) {
+    if (this.offsetIndex.containsKey(journal.getSequence())) {
+      return;
+    }
+
+    final byte[] payload = LedgerCodec.encode(journal, journalItems);
+    final int recordBytes = HEADER_BYTES + payload.length + CHAIN_BYTES;
+
+    Segment segment = this.segments.get(this.segments.size() - 1);
+    if (segment.limit + recordBytes > segment.buffer.capacity()) {
+      final int number = segment.number + 1;
+      segment.buffer.force();
+      try {
+        segment = this.open(this.segmentPath(number), number, Math.max(this.segmentSize, recordBytes));
+      } catch (final IOException ioex) {
+        throw new UncheckedIOException(ioex);
+      }
+      this.segments.add(segment);
+    }
+
+    final CRC32C checksum = new CRC32C();
+    checksum.update(payload);
+
+    final DigestWriter digestWriter = DigestWriter.current();
+    digestWriter.write(this.headHash);
+    digestWriter.write(payload);
+    final byte[] chainHash = digestWriter.digest();
+
+    final ByteBuffer record = segment.buffer.duplicate();
+    record.position(segment.limit);
+    record.putInt(payload.length);
+    record.putInt((int) checksum.getValue());
+    record.put(payload);
+    record.put(chainHash);
+    segment.buffer.force();
+
+    this.offsetIndex.put(journal.getSequence(), this.pack(segment.number, segment.limit));
+    segment.limit += recordBytes;
+    this.headHash = chainHash;
+  }
+
+  public Optional<JournalEntry> find(final Long sequence) {
+    final Long location = this.offsetIndex.get(sequence);
+    if (location == null) {
+      return Optional.empty();
+    }
+    final Segment segment = this.segments.get((int) (location >>> Integer.SIZE));
+    return Optional.of(LedgerCodec.decode(this.payload(segment, (int) location.longValue())));
+  }
+
+  public boolean contains(final Long sequence) {
+    return this.offsetIndex.containsKey(sequence);
+  }
+
+  public Long replay(final Consumer<JournalEntry> consumer) {
+    Long watermark = null;
+    for (final Segment segment : this.segments) {
+      final int limit = segment.limit;
+      int offset = 0;
+      while (offset < limit) {
+        final ByteBuffer payload = this.payload(segment, offset);
+        watermark = this.pack(segment.number, offset);
+        offset += HEADER_BYTES + payload.remaining() + CHAIN_BYTES;
+        consumer.accept(LedgerCodec.decode(payload));
+      }
+    }
+    return watermark;
+  }
+
+  public LedgerAudit audit() {
+    byte[] previousHash = GENESIS;
+    long records = 0L;
+    Long lastSequence = null;
+    for (final Segment segment : this.segments) {
+      final int limit = segment.limit;
+      int offset = 0;
+      while (offset < limit) {
+        final ByteBuffer payload = this.payload(segment, offset);
+        final long sequence = LedgerCodec.peekSequence(payload);
+        final byte[] chainHash = this.verify(segment, offset, payload, previousHash);
+        if (chainHash == null) {
+          return LedgerAudit.of(this.segments.size(), records, lastSequence, DigestWriter.toHex(previousHash),
+              Boolean.FALSE,
+              String.format("Record of journal '%d' in segment %d at offset %d does not match its checksum or chain.",
+                  sequence, segment.number, offset));
+        }
+        previousHash = chainHash;
+        lastSequence = sequence;
+        records++;
+        offset += HEADER_BYTES + payload.remaining() + CHAIN_BYTES;
+      }
+    }
+    return LedgerAudit.of(this.segments.size(), records, lastSequence, DigestWriter.toHex(previousHash),
+        Boolean.TRUE, null);
+  }
+
+  private void recover(final Segment segment, final boolean tail) {
+    final ByteBuffer buffer = segment.buffer;
+    int offset = 0;
+    while (offset + HEADER_BYTES <= buffer.capacity()) {
+      final int length = buffer.getInt(offset);
+      if (length == 0) {
+        break;
+      }
+
+      final byte[] chainHash;
+      if (length < 0 || offset + HEADER_BYTES + length + CHAIN_BYTES > buffer.capacity()) {
+        chainHash = null;
+      } else {
+        final ByteBuffer payload = this.slice(buffer, offset + HEADER_BYTES, length);
+        chainHash = this.verify(segment, offset, payload, this.headHash);
+        if (chainHash != null) {
+          this.offsetIndex.put(LedgerCodec.peekSequence(payload), this.pack(segment.number, offset));
+        }
+      }
+
+      if (chainHash == null) {
+        if (!tail) {
+          throw new IllegalStateException(
+              String.format("Ledger segment %d is corrupt at offset %d.", segment.number, offset)
+          );
+        }
+        LOGGER.warn("Truncating torn ledger record in segment {} at offset {}.", segment.number, offset);
+        final ByteBuffer record = buffer.duplicate();
+        record.position(offset);
+        record.put(new byte[Math.min(HEADER_BYTES, buffer.capacity() - offset)]);
+        buffer.force();
+        break;
+      }
+
+      this.headHash = chainHash;
+      offset += HEADER_BYTES + length + CHAIN_BYTES;
+    }
+    segment.limit = offset;
+  }
+
+  private byte[] verify(final Segment segment, final int offset, final ByteBuffer payload,
+      final byte[] previousHash) {
+    final CRC32C checksum = new CRC32C();
+    checksum.update(payload.duplicate());
+    if ((int) checksum.getValue() != segment.buffer.getInt(offset + Integer.BYTES)) {
+      return null;
+    }
+
+    final DigestWriter digestWriter = DigestWriter.current();
+    digestWriter.write(previousHash);
+    digestWriter.write(payload.duplicate());
+    final byte[] chainHash = digestWriter.digest();
+
+    final byte[] storedHash = new byte[CHAIN_BYTES];
+    segment.buffer.duplicate().position(offset + HEADER_BYTES + payload.remaining()).get(storedHash);
+    return Arrays.equals(chainHash, storedHash) ? chainHash : null;
+  }
+
+  private ByteBuffer payload(final Segment segment, final int offset) {
+    return this.slice(segment.buffer, offset + HEADER_BYTES, segment.buffer.getInt(offset));
+  }
+
+  private ByteBuffer slice(final ByteBuffer buffer, final int position, final int length) {
+    final ByteBuffer slice = buffer.duplicate();
+    slice.position(position);
+    slice.limit(position + length);
+    return slice.slice();
+  }
+
+  private Segment open(final Path path, final int number, final long size) throws IOException {
+    final FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    return new Segment(number, channel, channel.map(MapMode.READ_WRITE, 0L, size));
+  }
+
+  private Path segmentPath(final int number) {
+    return Paths.get(this.directory, String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+  }
+
+  private long pack(final int number, final int offset) {
+    return ((long) number << Integer.SIZE) | (offset & 0xFFFFFFFFL);
+  }
+}
@@ -0,0 +1,326 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.MerkleProof;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.exception.RequestValidationException;
+import io.conjuror.component.journal.exception.ResourceNotFoundException;
+import io.conjuror.component.journal.repository.JournalRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MerkleService {
+
+  private static final byte LEAF_PREFIX = 0;
+  private static final byte NODE_PREFIX = 1;
+
+  private final JournalRepository journalRepository;
+  private final JournalItemService journalItemService;
+  private final Map<Long, MerkleTree> trees = new LinkedHashMap<>(16, 0.75F, true);
+  private long cachedNodes = 0L;
+
+  private static final class MerkleTree {
+    private final String root;
+    private final int size;
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final Map<Long, byte[]> nodes = new HashMap<>();
+
+    private MerkleTree(final String root, final int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    private static long keyOf(final int from, final int to) {
+      return ((long) from << Integer.SIZE) | to;
+    }
+
+    private long weight() {
+      return (long) this.positions.size() + this.nodes.size();
+    }
+  }
+
+  @Value("${io.conjuror.merkle.tree-cache-nodes:1048576}")
+  private Long treeCacheNodes;
+
+  @Autowired
+  public MerkleService(
+      final JournalRepository journalRepository,
+      final JournalItemService journalItemService) {
+    super();
+    this.journalRepository = journalRepository;
+    this.journalItemService = journalItemService;
+  }
+
+  public void append(final Journal journal, final JournalItem journalItem) {
+    final long itemCount = journal.getItemCount() != null ? journal.getItemCount() : 0L;
+    final List<String> frontier =
+        journal.getMerkleFrontier() != null ? new ArrayList<>(journal.getMerkleFrontier()) : new ArrayList<>();
+
+    final byte[] leafHash = this.leafHash(journalItem);
+    journalItem.setPosition(itemCount);
+    journalItem.setLeafHash(DigestWriter.toHex(leafHash));
+    this.appendLeaf(frontier, itemCount, leafHash);
+
+    journal.setItemCount(itemCount + 1L);
+    journal.setMerkleFrontier(frontier);
+  }
+
+  public void rebuild(final Journal journal, final List<JournalItem> journalItems) {
+    journal.setItemCount(0L);
+    journal.setMerkleFrontier(new ArrayList<>());
+    journalItems.forEach(journalItem -> this.append(journal, journalItem));
+  }
+
+  public String root(final Journal journal) {
+    return this.fold(journal.getMerkleFrontier());
+  }
+
+  public String computeRoot(final List<JournalItem> journalItems) {
+    return this.computeRoot(journalItems, false);
+  }
+
+  public boolean matchesRoot(final String merkleRoot, final List<JournalItem> journalItems) {
+    return merkleRoot.equals(this.computeRoot(journalItems, false))
+        || merkleRoot.equals(this.computeRoot(journalItems, true));
+  }
+
+  private String computeRoot(final List<JournalItem> journalItems, final boolean charCountFramed) {
+    final List<String> frontier = new ArrayList<>();
+    for (int index = 0; index < journalItems.size(); index++) {
+      this.appendLeaf(frontier, index, this.leafHash(journalItems.get(index),
+          charCountFramed ? DigestWriter.charCountFramed() : DigestWriter.current()));
+    }
+    return this.fold(frontier);
+  }
+
+  public MerkleProof prove(final Long sequence, final Long itemSequence) {
+    final Journal journal = this.findJournalWithRoot(sequence);
+    final MerkleTree tree = this.findTree(journal);
+
+    final Integer position = tree.positions.get(itemSequence);
+    if (position == null) {
+      throw new ResourceNotFoundException(
+          String.format("Journal item '%s' not found in journal '%s'.", itemSequence, sequence)
+      );
+    }
+
+    final List<String> auditPath = new ArrayList<>();
+    this.collectPath(tree, position, 0, tree.size, auditPath);
+
+    return MerkleProof.of(sequence, itemSequence, position.longValue(), (long) tree.size,
+        DigestWriter.toHex(tree.nodes.get(MerkleTree.keyOf(position, position + 1))), auditPath,
+        journal.getMerkleRoot());
+  }
+
+  public boolean verify(final Long sequence, final Long itemSequence, final MerkleProof proof) {
+    if (proof == null || proof.getPosition() == null || proof.getTreeSize() == null
+        || proof.getAuditPath() == null) {
+      return Boolean.FALSE;
+    }
+
+    final Journal journal = this.findJournalWithRoot(sequence);
+    final JournalItem journalItem = this.journalItemService.findItem(sequence, itemSequence)
+        .orElseThrow(() ->
+            new ResourceNotFoundException(
+                String.format("Journal item '%s' not found in journal '%s'.", itemSequence, sequence)
+            )
+        );
+
+    try {
+      final byte[] root = DigestWriter.fromHex(journal.getMerkleRoot());
+      return this.verify(this.leafHash(journalItem), proof.getPosition(), proof.getTreeSize(),
+          proof.getAuditPath(), root)
+          || this.verify(this.leafHash(journalItem, DigestWriter.charCountFramed()), proof.getPosition(),
+          proof.getTreeSize(), proof.getAuditPath(), root);
+    } catch (final IllegalArgumentException iaex) {
+      return Boolean.FALSE;
+    }
+  }
+
+  boolean verify(final byte[] leafHash, final long position, final long treeSize,
+      final List<String> auditPath, final byte[] root) {
+    if (position < 0L || position >= treeSize) {
+      return Boolean.FALSE;
+    }
+
+    long fn = position;
+    long sn = treeSize - 1L;
+    byte[] hash = leafHash;
+    for (final String sibling : auditPath) {
+      if (sn == 0L) {
+        return Boolean.FALSE;
+      }
+      if ((fn & 1L) == 1L || fn == sn) {
+        hash = this.nodeHash(DigestWriter.fromHex(sibling), hash);
+        while ((fn & 1L) == 0L && fn != 0L) {
+          fn >>>= 1;
+          sn >>>= 1;
+        }
+      } else {
+        hash = this.nodeHash(hash, DigestWriter.fromHex(sibling));
+      }
+      fn >>>= 1;
+      sn >>>= 1;
+    }
+    return sn == 0L && Arrays.equals(hash, root);
+  }
+
+  byte[] leafHash(final JournalItem journalItem) {
+    return this.leafHash(journalItem, DigestWriter.current());
+  }
+
+  private byte[] leafHash(final JournalItem journalItem, final DigestWriter digestWriter) {
+    digestWriter.write(LEAF_PREFIX);
+    digestWriter.write(journalItem);
+    return digestWriter.digest();
+  }
+
+  byte[] nodeHash(final byte[] left, final byte[] right) {
+    final DigestWriter digestWriter = DigestWriter.current();
+    digestWriter.write(NODE_PREFIX);
+    digestWriter.write(left);
+    digestWriter.write(right);
+    return digestWriter.digest();
+  }
+
+  private void appendLeaf(final List<String> frontier, final long itemCount, final byte[] leafHash) {
+    byte[] node = leafHash;
+    for (long count = itemCount; (count & 1L) == 1L; count >>>= 1) {
+      node = this.nodeHash(DigestWriter.fromHex(frontier.remove(frontier.size() - 1)), node);
+    }
+    frontier.add(DigestWriter.toHex(node));
+  }
+
+  private String fold(final List<String> frontier) {
+    if (frontier == null || frontier.isEmpty()) {
+      return DigestWriter.toHex(DigestWriter.current().digest());
+    }
+
+    byte[] root = DigestWriter.fromHex(frontier.get(frontier.size() - 1));
+    for (int index = frontier.size() - 2; index >= 0; index--) {
+      root = this.nodeHash(DigestWriter.fromHex(frontier.get(index)), root);
+    }
+    return DigestWriter.toHex(root);
+  }
+
+  private MerkleTree findTree(final Journal journal) {
+    final MerkleTree cachedTree;
+    synchronized (this.trees) {
+      cachedTree = this.trees.get(journal.getSequence());
+    }
+    if (cachedTree != null && cachedTree.root.equals(journal.getMerkleRoot())) {
+      return cachedTree;
+    }
+
+    final List<JournalItem> journalItems =
+        new ArrayList<>(this.journalItemService.findItems(journal.getSequence()));
+    journalItems.sort(Comparator.comparing(JournalItem::getPosition));
+
+    final MerkleTree tree = new MerkleTree(journal.getMerkleRoot(), journalItems.size());
+    for (int index = 0; index < journalItems.size(); index++) {
+      tree.positions.put(journalItems.get(index).getSequence(), index);
+      tree.nodes.put(MerkleTree.keyOf(index, index + 1), DigestWriter.fromHex(journalItems.get(index).getLeafHash()));
+    }
+    if (tree.size > 0) {
+      this.subtreeHash(tree, 0, tree.size);
+    }
+    this.cache(journal.getSequence(), tree);
+    return tree;
+  }
+
+  private void cache(final Long sequence, final MerkleTree tree) {
+    synchronized (this.trees) {
+      final MerkleTree previousTree = this.trees.remove(sequence);
+      if (previousTree != null) {
+        this.cachedNodes -= previousTree.weight();
+      }
+      if (tree.weight() > this.treeCacheNodes) {
+        return;
+      }
+
+      final Iterator<MerkleTree> iterator = this.trees.values().iterator();
+      while (this.cachedNodes + tree.weight() > this.treeCacheNodes && iterator.hasNext()) {
+        this.cachedNodes -= iterator.next().weight();
+        iterator.remove();
+      }
+      this.trees.put(sequence, tree);
+      this.cachedNodes += tree.weight();
+    }
+  }
+
+  private void collectPath(final MerkleTree tree, final int position, final int from, final int to,
+      final List<String> auditPath) {
+    if (to - from <= 1) {
+      return;
+    }
+    final int split = from + Integer.highestOneBit(to - from - 1);
+    if (position < split) {
+      this.collectPath(tree, position, from, split, auditPath);
+      auditPath.add(DigestWriter.toHex(this.subtreeHash(tree, split, to)));
+    } else {
+      this.collectPath(tree, position, split, to, auditPath);
+      auditPath.add(DigestWriter.toHex(this.subtreeHash(tree, from, split)));
+    }
+  }
+
+  private byte[] subtreeHash(final MerkleTree tree, final int from, final int to) {
+    final long key = MerkleTree.keyOf(from, to);
+    final byte[] cachedHash = tree.nodes.get(key);
+    if (cachedHash != null) {
+      return cachedHash;
+    }
+    final int split = from + Integer.highestOneBit(to - from - 1);
+    final byte[] hash = this.nodeHash(this.subtreeHash(tree, from, split), this.subtreeHash(tree, split, to));
+    tree.nodes.put(key, hash);
+    return hash;
+  }
+
+  private Journal findJournalWithRoot(final Long sequence) {
+    final Journal journal = this.journalRepository.findById(sequence)
+        .orElseThrow(() ->
+            new ResourceNotFoundException(String.format("Journal '%s' not found.", sequence))
+        );
+    if (journal.getMerkleRoot() == null) {
+      throw new RequestValidationException(
+          String.format("Journal '%s' is not scheduled yet.", sequence)
+      );
+    }
+    return journal;
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.JournalConfiguration;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.Journal.State;
+import io.conjuror.component.journal.data.PendingProjection;
+import io.conjuror.component.journal.data.Posting;
+import io.conjuror.component.journal.repository.JournalRepository;
+import io.conjuror.component.journal.repository.PostingRepository;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import org.apache.geode.cache.Region;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ProjectionService implements InitializingBean, DisposableBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+  private static final long CATCH_UP_POLL_MILLIS = 50L;
+
+  private final AccountService accountService;
+  private final PostingRepository postingRepository;
+  private final JournalRepository journalRepository;
+  private final Region<Long, PendingProjection> pendingProjectionRegion;
+  private final String claimant = UUID.randomUUID().toString();
+  private final BlockingQueue<Long> releasedSequences = new LinkedBlockingQueue<>();
+  private final Set<Long> queuedSequences = ConcurrentHashMap.newKeySet();
+  private final ReentrantLock projectionLock = new ReentrantLock();
+
+  @Value("${io.conjuror.projection.asynchronous:false}")
+  private Boolean asynchronous;
+
+  @Value("${io.conjuror.projection.batch-size:500}")
+  private Integer batchSize;
+
+  @Value("${io.conjuror.projection.retry-interval:1000}")
+  private Long retryInterval;
+
+  @Value("${io.conjuror.projection.catch-up-timeout:10000}")
+  private Long catchUpTimeout;
+
+  @Value("${io.conjuror.projection.claim-timeout:60000}")
+  private Long claimTimeout;
+
+  private Thread worker;
+
+  @Autowired
+  public ProjectionService(
+      final AccountService accountService,
+      final PostingRepository postingRepository,
+      final JournalRepository journalRepository,
+      @Qualifier("pending_projections") final Region<Long, PendingProjection> pendingProjectionRegion) {
+    super();
+    this.accountService = accountService;
+    this.postingRepository = postingRepository;
+    this.journalRepository = journalRepository;
+    this.pendingProjectionRegion = pendingProjectionRegion;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    if (!this.asynchronous) {
+      return;
+    }
+    this.worker = new Thread(this::drain, "conjuror-projection");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    if (this.worker != null) {
+      this.worker.interrupt();
+      this.worker.join();
+    }
+  }
+
+  public boolean isAsynchronous() {
+    return this.asynchronous;
+  }
+
+  public long lag() {
+    return this.pendingSequences().size();
+  }
+
+  public void register(final Long sequence) {
+    this.pendingProjectionRegion.putIfAbsent(sequence, PendingProjection.of(sequence));
+  }
+
+  public void register(final Collection<Long> sequences) {
+    final Map<Long, PendingProjection> pendingProjections = new HashMap<>();
+    sequences.forEach(sequence -> pendingProjections.put(sequence, PendingProjection.of(sequence)));
+    this.pendingProjectionRegion.putAll(pendingProjections);
+  }
+
+  public void enqueue(final Long sequence) {
+    if (this.queuedSequences.add(sequence)) {
+      this.releasedSequences.add(sequence);
+    }
+  }
+
+  @Scheduled(
+      initialDelayString = "${io.conjuror.projection.recovery-interval:60000}",
+      fixedDelayString = "${io.conjuror.projection.recovery-interval:60000}"
+  )
+  public void recover() {
+    if (!this.asynchronous) {
+      return;
+    }
+
+    this.pendingSequences().forEach(this::enqueue);
+  }
+
+  public void catchUp() {
+    if (!this.asynchronous) {
+      return;
+    }
+
+    Set<Long> unprojectedSequences = this.findUnprojected(this.pendingSequences());
+    if (unprojectedSequences.isEmpty()) {
+      return;
+    }
+
+    this.projectionLock.lock();
+    try {
+      if (!this.project(new ArrayList<>(unprojectedSequences))) {
+        throw new IllegalStateException("Could not project released journals.");
+      }
+    } finally {
+      this.projectionLock.unlock();
+    }
+
+    final long deadline = System.currentTimeMillis() + this.catchUpTimeout;
+    while (true) {
+      unprojectedSequences = this.findUnprojected(unprojectedSequences);
+      if (unprojectedSequences.isEmpty()) {
+        return;
+      }
+      if (System.currentTimeMillis() >= deadline) {
+        throw new IllegalStateException(
+            "Projection of " + unprojectedSequences.size() + " released journal(s) did not complete in time.");
+      }
+      try {
+        Thread.sleep(CATCH_UP_POLL_MILLIS);
+      } catch (final InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the projection.", iex);
+      }
+    }
+  }
+
+  private void drain() {
+    final List<Long> batch = new ArrayList<>(this.batchSize);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(this.releasedSequences.take());
+      } catch (final InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      final boolean projected;
+      this.projectionLock.lock();
+      try {
+        this.releasedSequences.drainTo(batch, this.batchSize - 1);
+        this.queuedSequences.removeAll(batch);
+        projected = this.project(batch);
+      } finally {
+        this.projectionLock.unlock();
+        batch.clear();
+      }
+
+      if (!projected) {
+        try {
+          Thread.sleep(this.retryInterval);
+        } catch (final InterruptedException iex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  boolean project(final List<Long> sequences) {
+    if (sequences.isEmpty()) {
+      return true;
+    }
+
+    final Map<Long, PendingProjection> claims = this.claim(sequences);
+    if (claims.isEmpty()) {
+      return true;
+    }
+
+    try {
+      final List<Posting> postings = new ArrayList<>();
+      for (final Long sequence : claims.keySet()) {
+        this.postingRepository.findAllByJournalSequence(sequence).stream()
+            .filter(posting -> !Boolean.TRUE.equals(posting.getReleased()))
+            .forEach(postings::add);
+      }
+      this.accountService.post(postings);
+      claims.forEach(this.pendingProjectionRegion::remove);
+      return true;
+    } catch (final RuntimeException rex) {
+      LOGGER.error("Could not project {} released journal(s), retrying.", claims.size(), rex);
+      claims.forEach((sequence, claim) ->
+          this.pendingProjectionRegion.replace(sequence, claim, claim.claim(null)));
+      claims.keySet().forEach(this::enqueue);
+      return false;
+    }
+  }
+
+  private Map<Long, PendingProjection> claim(final List<Long> sequences) {
+    final Map<Long, PendingProjection> pendingProjections = this.pendingProjectionRegion.getAll(sequences);
+    final Map<Long, Journal> journals = new HashMap<>();
+    this.journalRepository.findAllById(this.present(pendingProjections))
+        .forEach(journal -> journals.put(journal.getSequence(), journal));
+
+    final LocalDateTime expiredBefore =
+        LocalDateTime.now(Clock.systemUTC()).minus(this.claimTimeout, ChronoUnit.MILLIS);
+    final Map<Long, PendingProjection> claims = new HashMap<>();
+    pendingProjections.forEach((sequence, pendingProjection) -> {
+      if (pendingProjection == null) {
+        return;
+      }
+
+      final Journal journal = journals.get(sequence);
+      if (journal == null || journal.getState() != State.RELEASED) {
+        if (pendingProjection.getCreatedAt().isBefore(expiredBefore)
+            && (journal == null || journal.getState() == State.CANCELED)) {
+          this.pendingProjectionRegion.remove(sequence, pendingProjection);
+        }
+        return;
+      }
+      if (pendingProjection.getClaimedBy() != null && !pendingProjection.getClaimedAt().isBefore(expiredBefore)) {
+        return;
+      }
+
+      final PendingProjection claim = pendingProjection.claim(this.claimant);
+      if (this.pendingProjectionRegion.replace(sequence, pendingProjection, claim)) {
+        claims.put(sequence, claim);
+      }
+    });
+    return claims;
+  }
+
+  private Set<Long> findUnprojected(final Set<Long> sequences) {
+    if (sequences.isEmpty()) {
+      return sequences;
+    }
+
+    final Set<Long> unprojectedSequences = new HashSet<>();
+    this.journalRepository.findAllById(this.present(this.pendingProjectionRegion.getAll(sequences)))
+        .forEach(journal -> {
+          if (journal.getState() == State.RELEASED) {
+            unprojectedSequences.add(journal.getSequence());
+          }
+        });
+    return unprojectedSequences;
+  }
+
+  private Set<Long> present(final Map<Long, PendingProjection> pendingProjections) {
+    return pendingProjections.entrySet().stream()
+        .filter(pendingProjection -> pendingProjection.getValue() != null)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+  }
+
+  private Set<Long> pendingSequences() {
+    return new HashSet<>(this.pendingProjectionRegion.getAttributes().getPoolName() != null
+        ? this.pendingProjectionRegion.keySetOnServer()
+        : this.pendingProjectionRegion.keySet());
+  }
+}
@@ -0,0 +1,292 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.JournalConfiguration;
+import io.conjuror.component.journal.common.MoneyAccumulator;
+import io.conjuror.component.journal.data.Account;
+import io.conjuror.component.journal.data.DailyBalance;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.Journal.State;
+import io.conjuror.component.journal.data.JournalIdentifier;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.data.Posting;
+import io.conjuror.component.journal.repository.AccountRepository;
+import io.conjuror.component.journal.repository.DailyBalanceRepository;
+import io.conjuror.component.journal.repository.JournalItemRepository;
+import io.conjuror.component.journal.repository.JournalRepository;
+import io.conjuror.component.journal.repository.PostingRepository;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.geode.cache.Region;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RebuildService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+
+  private final AccountService accountService;
+  private final JournalRepository journalRepository;
+  private final JournalItemRepository journalItemRepository;
+  private final PostingRepository postingRepository;
+  private final AccountRepository accountRepository;
+  private final DailyBalanceRepository dailyBalanceRepository;
+  private final LedgerLogService ledgerLogService;
+  private final FingerprintService fingerprintService;
+  private final Region<String, JournalIdentifier> journalIdentifierRegion;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  @Value("${io.conjuror.rebuild.batch-size:500}")
+  private Integer batchSize;
+
+  @Autowired
+  public RebuildService(
+      final AccountService accountService,
+      final JournalRepository journalRepository,
+      final JournalItemRepository journalItemRepository,
+      final PostingRepository postingRepository,
+      final AccountRepository accountRepository,
+      final DailyBalanceRepository dailyBalanceRepository,
+      final LedgerLogService ledgerLogService,
+      final FingerprintService fingerprintService,
+      @Qualifier("journal_identifiers") final Region<String, JournalIdentifier> journalIdentifierRegion) {
+    super();
+    this.accountService = accountService;
+    this.journalRepository = journalRepository;
+    this.journalItemRepository = journalItemRepository;
+    this.postingRepository = postingRepository;
+    this.accountRepository = accountRepository;
+    this.dailyBalanceRepository = dailyBalanceRepository;
+    this.ledgerLogService = ledgerLogService;
+    this.fingerprintService = fingerprintService;
+    this.journalIdentifierRegion = journalIdentifierRegion;
+  }
+
+  public Integer rebuildAccounts() {
+    if (!this.running.compareAndSet(false, true)) {
+      return null;
+    }
+
+    try {
+      final long startedAt = System.nanoTime();
+      final LocalDate now = LocalDate.now(Clock.systemUTC());
+      final Map<String, Account> accounts = new HashMap<>();
+      this.walk(journals -> {
+        final Set<Long> releasedSequences = journals.stream()
+            .filter(journal -> journal.getState() == State.RELEASED)
+            .map(Journal::getSequence)
+            .collect(Collectors.toSet());
+        final Map<String, Posting> postings = this.accountService.derive(journals,
+            this.journalItemRepository.findAllByJournalSequenceIn(
+                journals.stream().map(Journal::getSequence).collect(Collectors.toList())));
+        postings.values().forEach(posting -> {
+          if (releasedSequences.contains(posting.getJournalSequence())) {
+            this.accountService.release(posting, now);
+          } else {
+            posting.setReleased(Boolean.FALSE);
+          }
+        });
+        postings.values().stream()
+            .filter(Posting::getReleased)
+            .collect(Collectors.groupingBy(Posting::getAccountReference))
+            .forEach((accountNumber, accountPostings) ->
+                this.accountService.apply(
+                    accounts.computeIfAbsent(accountNumber, this.accountService::newAccount), accountPostings, now)
+            );
+        this.postingRepository.saveAll(postings.values());
+      });
+      this.accountRepository.saveAll(accounts.values());
+
+      LOGGER.info("Rebuild of {} account(s) took {} ms.", accounts.size(),
+          (System.nanoTime() - startedAt) / 1_000_000L);
+      return accounts.size();
+    } finally {
+      this.running.set(false);
+    }
+  }
+
+  public Integer rebuildDailyBalances() {
+    if (!this.running.compareAndSet(false, true)) {
+      return null;
+    }
+
+    try {
+      final long startedAt = System.nanoTime();
+      final LocalDate now = LocalDate.now(Clock.systemUTC());
+      final Map<String, TreeMap<LocalDate, Map<String, MoneyAccumulator>>> daysByAccount = new HashMap<>();
+      Long lastJournalSequence = Long.MIN_VALUE;
+      String lastKey = "";
+      List<Posting> slice;
+      do {
+        slice = this.postingRepository.findReleasedSlice(Long.MAX_VALUE, lastJournalSequence, lastKey,
+            this.batchSize);
+        for (final Posting posting : slice) {
+          final LocalDate valueDate = posting.getValueDate() != null ? posting.getValueDate() : now;
+          daysByAccount
+              .computeIfAbsent(posting.getAccountReference(), accountNumber -> new TreeMap<>())
+              .computeIfAbsent(valueDate, key -> new HashMap<>())
+              .computeIfAbsent(posting.getCurrencyCode(), currencyCode -> new MoneyAccumulator())
+              .add(posting.getAmount());
+        }
+        if (!slice.isEmpty()) {
+          lastJournalSequence = slice.get(slice.size() - 1).getJournalSequence();
+          lastKey = slice.get(slice.size() - 1).getKey();
+        }
+      } while (slice.size() == this.batchSize);
+
+      final List<DailyBalance> batch = new ArrayList<>(this.batchSize);
+      for (final Entry<String, TreeMap<LocalDate, Map<String, MoneyAccumulator>>> days : daysByAccount.entrySet()) {
+        final Map<String, MoneyAccumulator> closingBalances = new HashMap<>();
+        for (final Entry<LocalDate, Map<String, MoneyAccumulator>> movements : days.getValue().entrySet()) {
+          final DailyBalance day = this.accountService.newDailyBalance(days.getKey(), movements.getKey());
+          day.getMovements().putAll(MoneyAccumulator.toBigDecimals(movements.getValue()));
+          day.getMovements().forEach((currency, amount) ->
+              closingBalances.computeIfAbsent(currency, code -> new MoneyAccumulator()).add(amount));
+          day.setClosingBalances(MoneyAccumulator.toBigDecimals(closingBalances));
+          batch.add(day);
+          if (batch.size() == this.batchSize) {
+            this.dailyBalanceRepository.saveAll(batch);
+            batch.clear();
+          }
+        }
+      }
+      this.dailyBalanceRepository.saveAll(batch);
+
+      LOGGER.info("Rebuild of daily balances for {} account(s) took {} ms.", daysByAccount.size(),
+          (System.nanoTime() - startedAt) / 1_000_000L);
+      return daysByAccount.size();
+    } finally {
+      this.running.set(false);
+    }
+  }
+
+  public Integer backfillLedger() {
+    if (!this.running.compareAndSet(false, true)) {
+      return null;
+    }
+
+    try {
+      final long startedAt = System.nanoTime();
+      final AtomicInteger appended = new AtomicInteger();
+      this.walk(journals -> {
+        final List<Journal> missingJournals = journals.stream()
+            .filter(journal -> journal.getState() == State.RELEASED)
+            .filter(journal -> !this.ledgerLogService.contains(journal.getSequence()))
+            .collect(Collectors.toList());
+        if (missingJournals.isEmpty()) {
+          return;
+        }
+
+        final Map<Long, List<JournalItem>> itemsByJournal = this.journalItemRepository.findAllByJournalSequenceIn(
+            missingJournals.stream().map(Journal::getSequence).collect(Collectors.toList())
+        ).stream()
+            .sorted(Comparator.comparing(JournalItem::getSequence))
+            .collect(Collectors.groupingBy(JournalItem::getJournalSequence));
+        missingJournals.forEach(journal ->
+            this.ledgerLogService.append(journal, itemsByJournal.getOrDefault(journal.getSequence(), List.of())));
+        appended.addAndGet(missingJournals.size());
+      });
+
+      LOGGER.info("Backfill of {} journal(s) into the ledger took {} ms.", appended.get(),
+          (System.nanoTime() - startedAt) / 1_000_000L);
+      return appended.get();
+    } finally {
+      this.running.set(false);
+    }
+  }
+
+  public Integer backfillIdentifiers() {
+    if (!this.running.compareAndSet(false, true)) {
+      return null;
+    }
+
+    try {
+      final long startedAt = System.nanoTime();
+      final AtomicInteger registered = new AtomicInteger();
+      this.walk(journals -> {
+        final Map<String, Journal> journalsByIdentifier = journals.stream()
+            .filter(journal -> journal.getIdentifier() != null)
+            .collect(Collectors.toMap(Journal::getIdentifier, Function.identity(), (first, second) -> first));
+        if (journalsByIdentifier.isEmpty()) {
+          return;
+        }
+
+        final Map<String, JournalIdentifier> journalIdentifiers =
+            this.journalIdentifierRegion.getAll(journalsByIdentifier.keySet());
+        journalsByIdentifier.forEach((identifier, journal) -> {
+          if (journalIdentifiers.get(identifier) == null
+              && this.journalIdentifierRegion.putIfAbsent(identifier, JournalIdentifier.of(identifier,
+              journal.getSequence(), this.fingerprintService.requestDigest(journal))) == null) {
+            registered.incrementAndGet();
+          }
+        });
+      });
+
+      LOGGER.info("Backfill of {} journal identifier(s) took {} ms.", registered.get(),
+          (System.nanoTime() - startedAt) / 1_000_000L);
+      return registered.get();
+    } finally {
+      this.running.set(false);
+    }
+  }
+
+  private void walk(final Consumer<List<Journal>> consumer) {
+    Long lastSequence = Long.MIN_VALUE;
+    List<Journal> slice;
+    do {
+      slice = this.journalRepository.findSliceAfter(lastSequence, this.batchSize);
+      if (slice.isEmpty()) {
+        return;
+      }
+      consumer.accept(
+          slice.stream()
+              .filter(journal -> journal.getState() != State.CANCELED)
+              .collect(Collectors.toList())
+      );
+      lastSequence = slice.get(slice.size() - 1).getSequence();
+    } while (slice.size() == this.batchSize);
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.JournalConfiguration;
+import io.conjuror.component.journal.common.MoneyAccumulator;
+import io.conjuror.component.journal.data.AccountSnapshot;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.Journal.State;
+import io.conjuror.component.journal.data.Posting;
+import io.conjuror.component.journal.repository.AccountSnapshotRepository;
+import io.conjuror.component.journal.repository.JournalRepository;
+import io.conjuror.component.journal.repository.PostingRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SnapshotService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+
+  private static final Set<State> OPEN_STATES = Set.of(State.PREPARATION, State.SCHEDULED);
+
+  private final ExchangeService exchangeService;
+  private final SnowflakeService snowflakeService;
+  private final JournalRepository journalRepository;
+  private final PostingRepository postingRepository;
+  private final AccountSnapshotRepository accountSnapshotRepository;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  private static final class AccountAccumulator {
+    private final Map<String, MoneyAccumulator> balances = new HashMap<>();
+    private final Map<LocalDate, Map<String, MoneyAccumulator>> pendingBalances = new HashMap<>();
+  }
+
+  @Value("${io.conjuror.snapshots.batch-size:1000}")
+  private Integer batchSize;
+
+  @Value("${io.conjuror.snapshots.scheduled:false}")
+  private Boolean scheduled;
+
+  @Value("${io.conjuror.snapshots.settle-time:60000}")
+  private Long settleTime;
+
+  @Autowired
+  public SnapshotService(
+      final ExchangeService exchangeService,
+      final SnowflakeService snowflakeService,
+      final JournalRepository journalRepository,
+      final PostingRepository postingRepository,
+      final AccountSnapshotRepository accountSnapshotRepository) {
+    super();
+    this.exchangeService = exchangeService;
+    this.snowflakeService = snowflakeService;
+    this.journalRepository = journalRepository;
+    this.postingRepository = postingRepository;
+    this.accountSnapshotRepository = accountSnapshotRepository;
+  }
+
+  @Scheduled(
+      initialDelayString = "${io.conjuror.snapshots.interval:3600000}",
+      fixedDelayString = "${io.conjuror.snapshots.interval:3600000}"
+  )
+  public void scheduleSnapshot() {
+    if (this.scheduled) {
+      this.takeSnapshot();
+    }
+  }
+
+  public Long takeSnapshot() {
+    if (!this.running.compareAndSet(false, true)) {
+      return null;
+    }
+
+    try {
+      final long startedAt = System.nanoTime();
+      final Long watermark = this.determineWatermark();
+      if (watermark == null) {
+        return null;
+      }
+
+      final LocalDate now = LocalDate.now(Clock.systemUTC());
+      final Map<String, AccountAccumulator> accumulators = new HashMap<>();
+      Long lastJournalSequence = Long.MIN_VALUE;
+      String lastKey = "";
+      List<Posting> slice;
+      do {
+        slice = this.postingRepository.findReleasedSlice(watermark, lastJournalSequence, lastKey, this.batchSize);
+        for (final Posting posting : slice) {
+          this.accumulate(accumulators, posting, now).add(posting.getAmount());
+        }
+        if (!slice.isEmpty()) {
+          lastJournalSequence = slice.get(slice.size() - 1).getJournalSequence();
+          lastKey = slice.get(slice.size() - 1).getKey();
+        }
+      } while (slice.size() == this.batchSize);
+
+      final LocalDateTime takenAt = LocalDateTime.now(Clock.systemUTC());
+      final List<AccountSnapshot> batch = new ArrayList<>(this.batchSize);
+      for (final Entry<String, AccountAccumulator> accumulator : accumulators.entrySet()) {
+        final AccountSnapshot snapshot = new AccountSnapshot();
+        snapshot.setNumber(accumulator.getKey());
+        snapshot.setJournalWatermark(watermark);
+        snapshot.setTakenAt(takenAt);
+        snapshot.setBalances(MoneyAccumulator.toBigDecimals(accumulator.getValue().balances));
+        snapshot.setPendingBalances(new HashMap<>());
+        accumulator.getValue().pendingBalances.forEach((valueDate, balances) ->
+            snapshot.getPendingBalances().put(valueDate, MoneyAccumulator.toBigDecimals(balances))
+        );
+        batch.add(snapshot);
+        if (batch.size() == this.batchSize) {
+          this.accountSnapshotRepository.saveAll(batch);
+          batch.clear();
+        }
+      }
+      this.accountSnapshotRepository.saveAll(batch);
+
+      LOGGER.info("Snapshot of {} account(s) at journal watermark {} took {} ms.", accumulators.size(), watermark,
+          (System.nanoTime() - startedAt) / 1_000_000L);
+      return watermark;
+    } finally {
+      this.running.set(false);
+    }
+  }
+
+  Long determineWatermark() {
+    final Long newestReleased = this.postingRepository.findNewestReleased().stream()
+        .findFirst()
+        .map(Posting::getJournalSequence)
+        .orElse(null);
+    if (newestReleased == null) {
+      return null;
+    }
+
+    long watermark = Math.min(newestReleased,
+        this.snowflakeService.floor(Instant.now(Clock.systemUTC()).minusMillis(this.settleTime)) - 1L);
+    final Long oldestOpen = this.journalRepository.findOldestInStates(OPEN_STATES).stream()
+        .findFirst()
+        .map(Journal::getSequence)
+        .orElse(null);
+    if (oldestOpen != null) {
+      watermark = Math.min(watermark, oldestOpen - 1L);
+    }
+
+    final Set<Long> unprojectedSequences =
+        this.postingRepository.findAllByReleasedAndJournalSequenceLessThanEqual(Boolean.FALSE, watermark).stream()
+            .map(Posting::getJournalSequence)
+            .collect(Collectors.toSet());
+    if (!unprojectedSequences.isEmpty()) {
+      for (final Journal journal : this.journalRepository.findAllById(unprojectedSequences)) {
+        if (journal.getState() == State.RELEASED) {
+          watermark = Math.min(watermark, journal.getSequence() - 1L);
+        }
+      }
+    }
+    return watermark;
+  }
+
+  private MoneyAccumulator accumulate(final Map<String, AccountAccumulator> accumulators, final Posting posting,
+      final LocalDate now) {
+    final AccountAccumulator accumulator =
+        accumulators.computeIfAbsent(posting.getAccountReference(), number -> new AccountAccumulator());
+    final Map<String, MoneyAccumulator> balances;
+    if (posting.getValueDate() != null && posting.getValueDate().isAfter(now)) {
+      balances = accumulator.pendingBalances.computeIfAbsent(posting.getValueDate(), valueDate -> new HashMap<>());
+    } else {
+      balances = accumulator.balances;
+    }
+    return balances.computeIfAbsent(posting.getCurrencyCode(),
+        currencyCode -> new MoneyAccumulator(this.exchangeService.precisionOf(currencyCode)));
+  }
+}
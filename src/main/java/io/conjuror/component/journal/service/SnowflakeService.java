@@ -33,7 +33,9 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -54,10 +56,12 @@ public class SnowflakeService {
   private static final long TENANT_ID_SHIFT = SEQUENCE_BITS + SERVICE_ID_BITS;
   private static final long SERVICE_ID_SHIFT = SEQUENCE_BITS;
 
+  private static final long MAX_DRIFT = 1000L;
+  private static final int MAX_SEGMENT_SIZE = (int) (MAX_DRIFT << SEQUENCE_BITS);
+
   private final long INCORPORATION_DATE = 1569888000000L;
 
-  private long lastTimestamp = -1L;
-  private long sequenceCounter = 0L;
+  private final AtomicLong lastIssued = new AtomicLong(-1L);
 
   private final AtomicLong waitCount = new AtomicLong(0);
 
@@ -72,30 +76,46 @@ public class SnowflakeService {
     super();
   }
 
-  public synchronized long next() {
-    long currentTimestamp = this.getCurrentTimestamp();
+  public long next() {
+    return this.compose(this.claim(1));
+  }
 
-    if (currentTimestamp < this.lastTimestamp) {
-      throw new IllegalStateException(
-          String.format("Clock moved backwards. Refusing to generate id for %d milliseconds",
-              this.lastTimestamp - currentTimestamp));
+  public Block reserve(final int count) {
+    if (count < 1) {
+      throw new IllegalArgumentException(
+          String.format("Refusing to reserve a block of %d ids", count));
     }
+    final long[] segments = new long[(count - 1) / MAX_SEGMENT_SIZE + 1];
+    for (int segment = 0; segment < segments.length; segment++) {
+      segments[segment] = this.claim(Math.min(MAX_SEGMENT_SIZE, count - segment * MAX_SEGMENT_SIZE));
+    }
+    return new Block(segments, count);
+  }
 
-    if (currentTimestamp == this.lastTimestamp) {
-      this.sequenceCounter = (this.sequenceCounter + 1) & MAX_SEQUENCE;
-      if (this.sequenceCounter == 0) {
-        currentTimestamp = this.awaitNextCycle(currentTimestamp);
-      }
-    } else {
-      this.sequenceCounter = 0L;
+  public class Block {
+    private final long[] segments;
+    private final int size;
+
+    private Block(final long[] segments, final int size) {
+      this.segments = segments;
+      this.size = size;
     }
 
-    this.lastTimestamp = currentTimestamp;
+    public int size() {
+      return this.size;
+    }
 
-    return ((currentTimestamp - INCORPORATION_DATE) << TIMESTAMP_SHIFT)
-        | (this.getTenant() << TENANT_ID_SHIFT)
-        | (this.getService() << SERVICE_ID_SHIFT)
-        | this.sequenceCounter;
+    public long get(final int index) {
+      if (index < 0 || index >= this.size) {
+        throw new IndexOutOfBoundsException(
+            String.format("Index %d out of block of %d ids", index, this.size));
+      }
+      return SnowflakeService.this.compose(this.segments[index / MAX_SEGMENT_SIZE] + index % MAX_SEGMENT_SIZE);
+    }
+  }
+
+  public long floor(final Instant instant) {
+    return (instant.toEpochMilli() - INCORPORATION_DATE) << TIMESTAMP_SHIFT;
   }
 
   public String parseAndFormat(final long sequence) {
@@ -121,12 +141,34 @@ public class SnowflakeService {
     return Instant.now(Clock.systemUTC()).toEpochMilli();
   }
 
-  private long awaitNextCycle(long currentTimestamp) {
-    this.waitCount.incrementAndGet();
-    while (currentTimestamp <= this.lastTimestamp) {
-      currentTimestamp = this.getCurrentTimestamp();
+  private long claim(final int count) {
+    while (true) {
+      final long last = this.lastIssued.get();
+      final long currentTimestamp = this.getCurrentTimestamp();
+      final long first = Math.max(last + 1L, currentTimestamp << SEQUENCE_BITS);
+
+      final long drift = ((first + count - 1L) >>> SEQUENCE_BITS) - currentTimestamp;
+      if (drift > MAX_DRIFT) {
+        this.awaitNextCycle(drift - MAX_DRIFT);
+        continue;
+      }
+
+      if (this.lastIssued.compareAndSet(last, first + count - 1L)) {
+        return first;
+      }
     }
-    return currentTimestamp;
+  }
+
+  private long compose(final long packed) {
+    return (((packed >>> SEQUENCE_BITS) - INCORPORATION_DATE) << TIMESTAMP_SHIFT)
+        | (this.getTenant() << TENANT_ID_SHIFT)
+        | (this.getService() << SERVICE_ID_SHIFT)
+        | (packed & MAX_SEQUENCE);
+  }
+
+  private void awaitNextCycle(final long milliseconds) {
+    this.waitCount.incrementAndGet();
+    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(milliseconds));
   }
 
   private long diode(long offset, long length) {
@@ -0,0 +1,246 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.JournalConfiguration;
+import io.conjuror.component.journal.common.VerificationReport;
+import io.conjuror.component.journal.common.VerificationReport.State;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.exception.ResourceConflictException;
+import io.conjuror.component.journal.exception.ResourceNotFoundException;
+import io.conjuror.component.journal.repository.JournalItemRepository;
+import io.conjuror.component.journal.repository.JournalRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class VerificationService implements DisposableBean {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(JournalConfiguration.LOGGER_NAME);
+  private static final int MAX_REPORTED_MISMATCHES = 1000;
+
+  private final JournalRepository journalRepository;
+  private final JournalItemRepository journalItemRepository;
+  private final FingerprintService fingerprintService;
+  private final MerkleService merkleService;
+  private final SnowflakeService snowflakeService;
+  private final ExecutorService verificationExecutor;
+  private final int parallelism;
+  private final ExecutorService sweepExecutor = Executors.newSingleThreadExecutor();
+  private final Map<Long, Sweep> sweeps = new ConcurrentHashMap<>();
+  private final AtomicReference<Sweep> runningSweep = new AtomicReference<>();
+
+  @Value("${io.conjuror.verification.slice-size:500}")
+  private Integer sliceSize;
+
+  @Value("${io.conjuror.verification.retained-reports:16}")
+  private Integer retainedReports;
+
+  @Autowired
+  public VerificationService(
+      final JournalRepository journalRepository,
+      final JournalItemRepository journalItemRepository,
+      final FingerprintService fingerprintService,
+      final MerkleService merkleService,
+      final SnowflakeService snowflakeService,
+      @Value("${io.conjuror.verification.parallelism:0}") final Integer parallelism) {
+    super();
+    this.journalRepository = journalRepository;
+    this.journalItemRepository = journalItemRepository;
+    this.fingerprintService = fingerprintService;
+    this.merkleService = merkleService;
+    this.snowflakeService = snowflakeService;
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.verificationExecutor = Executors.newFixedThreadPool(this.parallelism);
+  }
+
+  public Long startSweep() {
+    final Sweep sweep = new Sweep(this.snowflakeService.next());
+    if (!this.runningSweep.compareAndSet(null, sweep)) {
+      throw new ResourceConflictException(
+          String.format("Verification sweep '%s' is still running.", this.runningSweep.get().identifier)
+      );
+    }
+
+    this.pruneReports();
+    this.sweeps.put(sweep.identifier, sweep);
+    this.sweepExecutor.execute(() -> {
+      try {
+        this.sweep(sweep);
+        sweep.state = State.COMPLETED;
+      } catch (final Exception ex) {
+        LOGGER.warn("Verification sweep '{}' failed.", sweep.identifier, ex);
+        sweep.state = State.FAILED;
+      } finally {
+        sweep.finishedAt = LocalDateTime.now(Clock.systemUTC());
+        this.runningSweep.set(null);
+      }
+    });
+    return sweep.identifier;
+  }
+
+  public VerificationReport findReport(final Long identifier) {
+    final Sweep sweep = this.sweeps.get(identifier);
+    if (sweep == null) {
+      throw new ResourceNotFoundException(String.format("Verification '%s' not found.", identifier));
+    }
+    return sweep.report();
+  }
+
+  @Override
+  public void destroy() {
+    this.sweepExecutor.shutdownNow();
+    this.verificationExecutor.shutdownNow();
+  }
+
+  private void pruneReports() {
+    final List<Sweep> finished = this.sweeps.values().stream()
+        .filter(sweep -> sweep.finishedAt != null)
+        .sorted(Comparator.comparing((Sweep sweep) -> sweep.finishedAt).reversed())
+        .collect(Collectors.toList());
+    finished.stream()
+        .skip(Math.max(this.retainedReports - 1, 0))
+        .forEach(sweep -> this.sweeps.remove(sweep.identifier, sweep));
+  }
+
+  private void sweep(final Sweep sweep) throws Exception {
+    Long before = Long.MAX_VALUE;
+    List<Journal> slice;
+    do {
+      slice = this.journalRepository.findSliceBefore(before, this.sliceSize);
+      if (slice.isEmpty()) {
+        return;
+      }
+      before = slice.get(slice.size() - 1).getSequence();
+
+      final List<Journal> journals = slice.stream()
+          .filter(journal -> journal.getState() == Journal.State.SCHEDULED
+              || journal.getState() == Journal.State.RELEASED)
+          .collect(Collectors.toList());
+      if (journals.isEmpty()) {
+        continue;
+      }
+
+      final Map<Long, List<JournalItem>> itemsByJournal =
+          this.journalItemRepository.findAllByJournalSequenceIn(
+              journals.stream().map(Journal::getSequence).collect(Collectors.toList())
+          ).stream()
+              .collect(Collectors.groupingBy(JournalItem::getJournalSequence));
+
+      final int chunkSize = (journals.size() + this.parallelism - 1) / this.parallelism;
+      final List<Callable<Void>> tasks = IntStream.range(0, (journals.size() + chunkSize - 1) / chunkSize)
+          .mapToObj(chunk -> journals.subList(chunk * chunkSize, Math.min((chunk + 1) * chunkSize, journals.size())))
+          .map(chunk -> (Callable<Void>) () -> {
+            chunk.forEach(journal -> this.verify(sweep, journal, itemsByJournal));
+            return null;
+          })
+          .collect(Collectors.toList());
+      for (final Future<Void> future : this.verificationExecutor.invokeAll(tasks)) {
+        future.get();
+      }
+    } while (slice.size() == this.sliceSize);
+  }
+
+  private void verify(final Sweep sweep, final Journal journal, final Map<Long, List<JournalItem>> itemsByJournal) {
+    final List<JournalItem> journalItems =
+        new ArrayList<>(itemsByJournal.getOrDefault(journal.getSequence(), List.of()));
+    journalItems.sort(Comparator.comparing(JournalItem::getSequence));
+    if (!this.verify(journal, journalItems)) {
+      sweep.mismatch(journal.getSequence());
+    }
+    sweep.verifiedJournals.incrementAndGet();
+    sweep.verifiedItems.addAndGet(journalItems.size());
+  }
+
+  boolean verify(final Journal journal, final List<JournalItem> journalItems) {
+    if (!this.fingerprintService.valid(journal.getFingerPrint(), journal, journalItems)) {
+      return Boolean.FALSE;
+    }
+    if (journal.getMerkleRoot() == null) {
+      return Boolean.TRUE;
+    }
+
+    final List<JournalItem> positionedItems = new ArrayList<>(journalItems);
+    positionedItems.sort(Comparator.comparing(JournalItem::getPosition,
+        Comparator.nullsLast(Comparator.naturalOrder())));
+    return this.merkleService.matchesRoot(journal.getMerkleRoot(), positionedItems);
+  }
+
+  private static final class Sweep {
+    private final Long identifier;
+    private final LocalDateTime startedAt = LocalDateTime.now(Clock.systemUTC());
+    private final AtomicLong verifiedJournals = new AtomicLong();
+    private final AtomicLong verifiedItems = new AtomicLong();
+    private final AtomicInteger mismatchCount = new AtomicInteger();
+    private final Queue<Long> mismatches = new ConcurrentLinkedQueue<>();
+    private volatile State state = State.RUNNING;
+    private volatile LocalDateTime finishedAt;
+
+    private Sweep(final Long identifier) {
+      this.identifier = identifier;
+    }
+
+    private void mismatch(final Long sequence) {
+      if (this.mismatchCount.incrementAndGet() <= MAX_REPORTED_MISMATCHES) {
+        this.mismatches.add(sequence);
+      }
+    }
+
+    private VerificationReport report() {
+      final LocalDateTime end = this.finishedAt != null ? this.finishedAt : LocalDateTime.now(Clock.systemUTC());
+      final double seconds = Math.max(Duration.between(this.startedAt, end).toMillis(), 1L) / 1000.0D;
+      final long journals = this.verifiedJournals.get();
+      return VerificationReport.of(this.identifier, this.state, this.startedAt, this.finishedAt, journals,
+          this.verifiedItems.get(), journals / seconds, new ArrayList<>(this.mismatches));
+    }
+  }
+}
@@ -42,7 +42,9 @@ import io.conjuror.component.journal.repository.RecurringFeeRepository;
 import io.conjuror.component.journal.request.CalculationRequest;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Random;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -400,6 +402,164 @@ public class TestCalculationService {
     Assertions.assertEquals(adHocPriceComponent.getCode(), response.getPriceComponentCode());
   }
 
+  @Test
+  public void givenMultipleAgreementsWhenCalculatingBatchShouldResolveScheduleOnce() {
+    final PriceComponent adHocPriceComponent = new PriceComponent();
+    adHocPriceComponent.setType(Type.AD_HOC);
+    adHocPriceComponent.setPeriod(Period.MONTH);
+    adHocPriceComponent.setCode(this.randomString());
+    adHocPriceComponent.setName(this.randomString());
+    adHocPriceComponent.setControlAccount(this.randomString());
+    adHocPriceComponent.setCreatedAt(LocalDateTime.now());
+    adHocPriceComponent.setCreatedBy("unit-test");
+
+    this.priceComponentRepository.save(adHocPriceComponent);
+
+    final AdHocFee defaultFee = new AdHocFee();
+    defaultFee.setIdentifier(this.snowflakeService.next());
+    defaultFee.setPriceComponentCode(adHocPriceComponent.getCode());
+    defaultFee.setAmount(BigDecimal.TEN);
+    defaultFee.setWorkUnit(Boolean.TRUE);
+    defaultFee.setValidFrom(LocalDateTime.now().minusDays(1L));
+    defaultFee.setCreatedAt(LocalDateTime.now());
+    defaultFee.setCreatedBy("unit-test");
+
+    this.adHocFeeRepository.save(defaultFee);
+
+    final String agreementNumber = this.randomString();
+    final AdHocFee overriddenFee = new AdHocFee();
+    overriddenFee.setIdentifier(this.snowflakeService.next());
+    overriddenFee.setAgreementNumber(agreementNumber);
+    overriddenFee.setPriceComponentCode(adHocPriceComponent.getCode());
+    overriddenFee.setAmount(BigDecimal.ONE);
+    overriddenFee.setWorkUnit(Boolean.TRUE);
+    overriddenFee.setValidFrom(LocalDateTime.now().minusDays(1L));
+    overriddenFee.setCreatedAt(LocalDateTime.now());
+    overriddenFee.setCreatedBy("unit-test");
+
+    this.adHocFeeRepository.save(overriddenFee);
+
+    final List<CalculationRequest> calculationRequests = new ArrayList<>();
+    for (int index = 0; index < 1000; index++) {
+      calculationRequests.add(
+          CalculationRequest
+              .create(
+                  index % 2 == 0 ? agreementNumber : this.randomString(),
+                  adHocPriceComponent.getCode(),
+                  LocalDateTime.now()
+              )
+              .underlying(BigDecimal.valueOf(5.0D))
+              .build()
+      );
+    }
+
+    final List<CalculationResponse> responses = this.calculationService.process(calculationRequests, true);
+
+    Assertions.assertEquals(calculationRequests.size(), responses.size());
+    for (int index = 0; index < responses.size(); index++) {
+      final BigDecimal expectedAmount = index % 2 == 0 ? BigDecimal.valueOf(5.0D) : BigDecimal.valueOf(50.0D);
+      Assertions.assertEquals(0, expectedAmount.compareTo(responses.get(index).getAmount()));
+      Assertions.assertEquals(adHocPriceComponent.getControlAccount(), responses.get(index).getControlAccount());
+    }
+  }
+
+  @Test
+  public void givenChangedRecurringFeeWhenCalculatingAgainShouldUseChangedFee() {
+    final PriceComponent recurringPriceComponent = new PriceComponent();
+    recurringPriceComponent.setType(Type.RECURRING);
+    recurringPriceComponent.setPeriod(Period.MONTH);
+    recurringPriceComponent.setCode(this.randomString());
+    recurringPriceComponent.setName(this.randomString());
+    recurringPriceComponent.setControlAccount(this.randomString());
+    recurringPriceComponent.setCreatedAt(LocalDateTime.now());
+    recurringPriceComponent.setCreatedBy("unit-test");
+
+    this.priceComponentRepository.save(recurringPriceComponent);
+
+    final RecurringFee recurringFee = new RecurringFee();
+    recurringFee.setIdentifier(this.snowflakeService.next());
+    recurringFee.setPriceComponentCode(recurringPriceComponent.getCode());
+    recurringFee.setAmount(BigDecimal.TEN);
+    recurringFee.setValidFrom(LocalDateTime.now().minusDays(1L));
+    recurringFee.setCreatedAt(LocalDateTime.now());
+    recurringFee.setCreatedBy("unit-test");
+
+    this.recurringFeeRepository.save(recurringFee);
+
+    final CalculationRequest calculationRequest = CalculationRequest
+        .create(
+            this.randomString(),
+            recurringPriceComponent.getCode(),
+            LocalDateTime.now()
+        )
+        .build();
+
+    Assertions.assertEquals(0,
+        BigDecimal.TEN.compareTo(this.calculationService.process(calculationRequest).getAmount()));
+
+    recurringFee.setAmount(BigDecimal.ONE);
+    this.recurringFeeRepository.save(recurringFee);
+
+    Assertions.assertEquals(0,
+        BigDecimal.ONE.compareTo(this.calculationService.process(calculationRequest).getAmount()));
+  }
+
+  @Test
+  public void givenChangedPriceComponentTypeWhenCalculatingAgainShouldUseScheduleOfNewType() {
+    final PriceComponent priceComponent = new PriceComponent();
+    priceComponent.setType(Type.AD_HOC);
+    priceComponent.setPeriod(Period.MONTH);
+    priceComponent.setCode(this.randomString());
+    priceComponent.setName(this.randomString());
+    priceComponent.setControlAccount(this.randomString());
+    priceComponent.setCreatedAt(LocalDateTime.now());
+    priceComponent.setCreatedBy("unit-test");
+
+    this.priceComponentRepository.save(priceComponent);
+
+    final AdHocFee adHocFee = new AdHocFee();
+    adHocFee.setIdentifier(this.snowflakeService.next());
+    adHocFee.setPriceComponentCode(priceComponent.getCode());
+    adHocFee.setAmount(BigDecimal.TEN);
+    adHocFee.setWorkUnit(Boolean.TRUE);
+    adHocFee.setValidFrom(LocalDateTime.now());
+    adHocFee.setCreatedAt(LocalDateTime.now());
+    adHocFee.setCreatedBy("unit-test");
+
+    this.adHocFeeRepository.save(adHocFee);
+
+    final CalculationRequest calculationRequest = CalculationRequest
+        .create(
+            this.randomString(),
+            priceComponent.getCode(),
+            LocalDateTime.now()
+        )
+        .underlying(BigDecimal.valueOf(5.0D))
+        .build();
+
+    Assertions.assertEquals(0,
+        BigDecimal.valueOf(50.0D).compareTo(this.calculationService.process(calculationRequest).getAmount()));
+
+    final EventFee eventFee = new EventFee();
+    eventFee.setIdentifier(this.snowflakeService.next());
+    eventFee.setPriceComponentCode(priceComponent.getCode());
+    eventFee.setAmount(BigDecimal.valueOf(5.0D));
+    eventFee.setMinimalValue(BigDecimal.TEN);
+    eventFee.setValidFrom(LocalDateTime.now());
+    eventFee.setCreatedAt(LocalDateTime.now());
+    eventFee.setCreatedBy("unit-test");
+
+    this.eventFeeRepository.save(eventFee);
+    Assertions.assertEquals(0,
+        BigDecimal.valueOf(50.0D).compareTo(this.calculationService.process(calculationRequest).getAmount()));
+
+    priceComponent.setType(Type.EVENT);
+    this.priceComponentRepository.save(priceComponent);
+
+    Assertions.assertEquals(0,
+        BigDecimal.TEN.compareTo(this.calculationService.process(calculationRequest).getAmount()));
+  }
+
   private String randomString() {
     final byte[] randomBytes = new byte[32];
     RANDOM.nextBytes(randomBytes);
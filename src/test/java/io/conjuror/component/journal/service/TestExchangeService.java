@@ -26,7 +26,10 @@
  */
 package io.conjuror.component.journal.service;
 
+import io.conjuror.component.journal.data.Currency;
+import io.conjuror.component.journal.exception.RequestValidationException;
 import io.conjuror.component.journal.processor.CurrencyRequestProcessor;
+import io.conjuror.component.journal.repository.CurrencyRepository;
 import io.conjuror.component.journal.request.SetCurrencyRequest;
 import java.math.BigDecimal;
 import org.junit.jupiter.api.Assertions;
@@ -49,6 +52,9 @@ public class TestExchangeService {
   @Autowired
   private ExchangeService exchangeService;
 
+  @Autowired
+  private CurrencyRepository currencyRepository;
+
   public TestExchangeService() {
     super();
   }
@@ -144,4 +150,63 @@ public class TestExchangeService {
         this.exchangeService.estimateAmount(BigDecimal.valueOf(8.54D), gbp, usd);
     Assertions.assertEquals(0, BigDecimal.valueOf(11.92D).compareTo(result));
   }
+
+  @Test
+  public void givenUpdatedRate_whenExchanging_shouldUseUpdatedRate() {
+    final String chf = "CHF";
+    this.currencyRequestProcessor.process(
+        SetCurrencyRequest
+            .create(chf)
+            .rate(BigDecimal.valueOf(2L))
+            .precision(2)
+            .build()
+    );
+    Assertions.assertEquals(0, BigDecimal.valueOf(20L)
+        .compareTo(this.exchangeService.estimateAmount(BigDecimal.TEN, "EUR", chf)));
+
+    this.currencyRequestProcessor.process(
+        SetCurrencyRequest
+            .create(chf)
+            .rate(BigDecimal.valueOf(3L))
+            .precision(2)
+            .build()
+    );
+    Assertions.assertEquals(0, BigDecimal.valueOf(30L)
+        .compareTo(this.exchangeService.estimateAmount(BigDecimal.TEN, "EUR", chf)));
+  }
+
+  @Test
+  public void givenRegionUpdate_whenExchanging_shouldUseUpdatedRate() {
+    final String sek = "SEK";
+    this.currencyRequestProcessor.process(
+        SetCurrencyRequest
+            .create(sek)
+            .rate(BigDecimal.valueOf(10L))
+            .precision(2)
+            .build()
+    );
+    Assertions.assertEquals(0, BigDecimal.valueOf(100L)
+        .compareTo(this.exchangeService.estimateAmount(BigDecimal.TEN, "EUR", sek)));
+
+    final Currency currency = this.currencyRepository.findById(sek).orElseThrow();
+    currency.setRate(BigDecimal.valueOf(11L));
+    this.currencyRepository.save(currency);
+    Assertions.assertEquals(0, BigDecimal.valueOf(110L)
+        .compareTo(this.exchangeService.estimateAmount(BigDecimal.TEN, "EUR", sek)));
+  }
+
+  @Test
+  public void givenZeroRate_whenSettingCurrency_shouldRejectRequest() {
+    Assertions.assertThrows(RequestValidationException.class, () ->
+        this.currencyRequestProcessor.process(
+            SetCurrencyRequest
+                .create("NOK")
+                .rate(BigDecimal.ZERO)
+                .precision(2)
+                .build()
+        )
+    );
+    Assertions.assertEquals(0, BigDecimal.TEN
+        .compareTo(this.exchangeService.estimateAmount(BigDecimal.TEN, "EUR", "NOK")));
+  }
 }
@@ -0,0 +1,180 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.processor.JournalRequestProcessor;
+import io.conjuror.component.journal.request.AddItemRequest;
+import io.conjuror.component.journal.request.AddItemRequest.Allocation;
+import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.NONE,
+    classes = {
+        TestConfiguration.class
+    }
+)
+public class TestFingerprintService {
+
+  private static final Random RANDOM = new Random();
+
+  @Autowired
+  private JournalRequestProcessor journalRequestProcessor;
+
+  @Autowired
+  private JournalService journalService;
+
+  @Autowired
+  private FingerprintService fingerprintService;
+
+  public TestFingerprintService() {
+    super();
+  }
+
+  @Test
+  public void givenScheduledJournal_whenValidating_shouldAcceptCurrentAndLegacyFingerprint() throws Exception {
+    final Long sequence = this.scheduleJournal();
+    final Journal journal = this.journalService.findJournal(sequence);
+    final List<JournalItem> journalItems = this.journalService.findAllItemsByJournal(sequence);
+
+    Assertions.assertTrue(journal.getFingerPrint().startsWith("3:"));
+    Assertions.assertTrue(this.fingerprintService.valid(journal.getFingerPrint(), sequence));
+    Assertions.assertEquals(journal.getFingerPrint(), this.fingerprintService.generate(journal, journalItems));
+
+    final String legacyFingerprint = this.fingerprintService.generateLegacy(journal, journalItems);
+    Assertions.assertTrue(this.fingerprintService.valid(legacyFingerprint, sequence));
+
+    final String tamperedFingerprint = journal.getFingerPrint().substring(0, journal.getFingerPrint().length() - 1)
+        + (journal.getFingerPrint().endsWith("0") ? "1" : "0");
+    Assertions.assertFalse(this.fingerprintService.valid(tamperedFingerprint, sequence));
+  }
+
+  @Test
+  public void givenChangedItem_whenGenerating_shouldChangeFingerprint() throws Exception {
+    final Long sequence = this.scheduleJournal();
+    final Journal journal = this.journalService.findJournal(sequence);
+    final List<JournalItem> journalItems = this.journalService.findAllItemsByJournal(sequence);
+
+    journalItems.get(0).getSource().setAmount(BigDecimal.ONE);
+    Assertions.assertNotEquals(journal.getFingerPrint(), this.fingerprintService.generate(journal, journalItems));
+  }
+
+  @Test
+  public void givenBytes_whenConvertingToHex_shouldMatchFormattedHex() {
+    final byte[] bytes = new byte[256];
+    for (int index = 0; index < bytes.length; index++) {
+      bytes[index] = (byte) index;
+    }
+
+    final StringBuilder expected = new StringBuilder();
+    for (final byte b : bytes) {
+      expected.append(String.format("%02x", b));
+    }
+    Assertions.assertEquals(expected.toString(), this.fingerprintService.toHex(bytes));
+  }
+
+  @Test
+  public void givenWellFormedString_whenDigesting_shouldHashByteLengthPrefixedUtf8() throws Exception {
+    final String value = "\u00dcn\u00efc\u00f6d\u00e9 \u20ac \ud83d\ude00";
+    final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+
+    final MessageDigest messageDigest = MessageDigest.getInstance(DigestWriter.ALGORITHM);
+    messageDigest.update((byte) 1);
+    messageDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(encoded.length).array());
+    messageDigest.update(encoded);
+
+    final DigestWriter digestWriter = DigestWriter.current();
+    digestWriter.write(value);
+    Assertions.assertArrayEquals(messageDigest.digest(), digestWriter.digest());
+  }
+
+  @Test
+  public void givenLoneSurrogate_whenDigesting_shouldNotCollideWithReplacementCharacter() {
+    final DigestWriter digestWriter = DigestWriter.current();
+    digestWriter.write("a\ud800");
+    final byte[] surrogateDigest = digestWriter.digest();
+
+    final DigestWriter replacementWriter = DigestWriter.current();
+    replacementWriter.write("a?");
+    Assertions.assertFalse(Arrays.equals(surrogateDigest, replacementWriter.digest()));
+  }
+
+  private Long scheduleJournal() {
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .description(this.randomString())
+            .valueDate(LocalDate.now())
+            .bookingDate(LocalDate.now())
+            .build()
+    );
+
+    final Allocation debtor = new Allocation();
+    debtor.setAccountReference(this.randomString());
+    debtor.setAmount(BigDecimal.TEN);
+
+    final Allocation creditor = new Allocation();
+    creditor.setAccountReference(this.randomString());
+    creditor.setAmount(BigDecimal.TEN);
+
+    this.journalRequestProcessor.process(
+        sequence,
+        AddItemRequest
+            .create(this.randomString())
+            .source(debtor)
+            .addTarget(creditor)
+            .purpose("\u00dcn\u00efc\u00f6d\u00e9 purpose")
+            .build()
+    );
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    return sequence;
+  }
+
+  private String randomString() {
+    final byte[] randomBytes = new byte[32];
+    RANDOM.nextBytes(randomBytes);
+    return Base64.getEncoder().encodeToString(randomBytes);
+  }
+}
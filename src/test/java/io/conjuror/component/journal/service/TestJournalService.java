@@ -27,28 +27,57 @@
 package io.conjuror.component.journal.service;
 
 import io.conjuror.component.journal.common.Balance;
+import io.conjuror.component.journal.common.JournalEntry;
+import io.conjuror.component.journal.common.StatementLine;
+import io.conjuror.component.journal.common.TypedSlice;
 import io.conjuror.component.journal.data.Document;
+import io.conjuror.component.journal.data.DocumentBlob;
 import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalIdentifier;
 import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.data.JournalPartitionResolver;
+import io.conjuror.component.journal.data.Posting;
+import io.conjuror.component.journal.exception.RequestValidationException;
+import io.conjuror.component.journal.exception.ResourceConflictException;
 import io.conjuror.component.journal.processor.JournalRequestProcessor;
+import io.conjuror.component.journal.repository.AccountRepository;
+import io.conjuror.component.journal.repository.DailyBalanceRepository;
+import io.conjuror.component.journal.repository.DocumentRepository;
+import io.conjuror.component.journal.repository.JournalRepository;
+import io.conjuror.component.journal.repository.PostingRepository;
 import io.conjuror.component.journal.request.AddItemRequest;
 import io.conjuror.component.journal.request.AddItemRequest.Allocation;
 import io.conjuror.component.journal.request.AddItemRequest.Builder;
 import io.conjuror.component.journal.request.AttachDocumentRequest;
 import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.IngestJournalRequest;
 import io.conjuror.component.journal.request.TransitionJournalRequest;
 import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
+import org.apache.geode.cache.EntryOperation;
+import org.apache.geode.cache.Region;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.data.gemfire.tests.integration.IntegrationTestsSupport;
@@ -76,6 +105,34 @@ public class TestJournalService extends IntegrationTestsSupport {
   @Autowired
   private FingerprintService fingerprintService;
 
+  @Autowired
+  private JournalItemService journalItemService;
+
+  @Autowired
+  private DocumentService documentService;
+
+  @Autowired
+  private RebuildService rebuildService;
+
+  @Autowired
+  private JournalRepository journalRepository;
+
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private PostingRepository postingRepository;
+
+  @Autowired
+  private DocumentRepository documentRepository;
+
+  @Autowired
+  private DailyBalanceRepository dailyBalanceRepository;
+
+  @Autowired
+  @Qualifier("journal_identifiers")
+  private Region<String, JournalIdentifier> journalIdentifierRegion;
+
   public TestJournalService() {
     super();
   }
@@ -158,7 +215,9 @@ public class TestJournalService extends IntegrationTestsSupport {
     final Document document = documents.get(0);
     Assertions.assertEquals(attachDocumentRequest.getMimeType(), document.getMimeType());
     Assertions.assertEquals(attachDocumentRequest.getBytes(), document.getBytes());
-    Assertions.assertEquals(attachDocumentRequest.getContent(), document.getContent());
+    Assertions.assertEquals(attachDocumentRequest.getContent(),
+        this.readContent(document));
+    Assertions.assertEquals(sequence, document.getJournalSequence());
 
     this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
 
@@ -185,6 +244,724 @@ public class TestJournalService extends IntegrationTestsSupport {
     Assertions.assertTrue(this.fingerprintService.valid(processedJournal.getFingerPrint(), sequence));
   }
 
+  @Test
+  public void givenReleasedJournals_whenDeterminingBalance_shouldApplyEachJournalOnce() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today);
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE, today.plusDays(2L));
+
+    final Balance debtorBalance = this.accountService.determineBalance(debtorAccount, "EUR");
+    Assertions.assertEquals(0, BigDecimal.TEN.negate().compareTo(debtorBalance.getAccountBalance()));
+
+    final Balance repeatedBalance = this.accountService.determineBalance(debtorAccount, "EUR");
+    Assertions.assertEquals(0, BigDecimal.TEN.negate().compareTo(repeatedBalance.getAccountBalance()));
+
+    final Balance creditorBalance = this.accountService.determineBalance(creditorAccount, "EUR");
+    Assertions.assertEquals(0, BigDecimal.TEN.compareTo(creditorBalance.getAccountBalance()));
+
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.valueOf(5L), today.minusDays(1L));
+
+    final Balance updatedBalance = this.accountService.determineBalance(debtorAccount, "EUR");
+    Assertions.assertEquals(0, BigDecimal.valueOf(15L).negate().compareTo(updatedBalance.getAccountBalance()));
+  }
+
+  @Test
+  public void givenBackdatedJournal_whenDeterminingBalanceAsOf_shouldReturnHistoricalBalances() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today.minusDays(10L));
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE, today.minusDays(5L));
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.valueOf(5L), today.minusDays(7L));
+
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR", today.minusDays(11L)).getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.TEN.negate().compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR", today.minusDays(8L)).getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.valueOf(15L).negate().compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR", today.minusDays(6L)).getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.valueOf(16L).negate().compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR", today).getAccountBalance()));
+
+    final List<Balance> balances = this.accountService.computeBalances(
+        List.of(debtorAccount, creditorAccount), "EUR", today.minusDays(6L));
+    Assertions.assertEquals(0, BigDecimal.valueOf(15L).negate().compareTo(balances.get(0).getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.valueOf(15L).compareTo(balances.get(1).getAccountBalance()));
+    Assertions.assertEquals(0, this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()
+        .compareTo(this.accountService.determineBalance(debtorAccount, "EUR", today).getAccountBalance()));
+  }
+
+  @Test
+  public void givenBackdatedJournal_whenStreamingStatement_shouldOrderByValueDateWithRunningBalance() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today.minusDays(10L));
+    final Long laterSequence =
+        this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE, today.minusDays(5L));
+    final Long backdatedSequence =
+        this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.valueOf(5L), today.minusDays(7L));
+
+    final List<StatementLine> lines = new ArrayList<>();
+    this.accountService.streamStatement(debtorAccount, today.minusDays(8L), today, lines::addAll);
+    Assertions.assertEquals(2, lines.size());
+    Assertions.assertEquals(backdatedSequence, lines.get(0).getJournalSequence());
+    Assertions.assertEquals(0, BigDecimal.valueOf(15L).negate().compareTo(lines.get(0).getRunningBalance()));
+    Assertions.assertEquals(laterSequence, lines.get(1).getJournalSequence());
+    Assertions.assertEquals(0, BigDecimal.valueOf(16L).negate().compareTo(lines.get(1).getRunningBalance()));
+
+    final List<StatementLine> allLines = new ArrayList<>();
+    this.accountService.streamStatement(debtorAccount, null, null, allLines::addAll);
+    Assertions.assertEquals(3, allLines.size());
+    Assertions.assertEquals(0, BigDecimal.TEN.negate().compareTo(allLines.get(0).getRunningBalance()));
+    Assertions.assertEquals(0, lines.get(1).getRunningBalance().compareTo(allLines.get(2).getRunningBalance()));
+
+    this.dailyBalanceRepository.deleteAll(
+        this.dailyBalanceRepository.findAllByAccountReferenceAndValueDateGreaterThanEqual(
+            debtorAccount, LocalDate.MIN));
+    final List<StatementLine> laterLines = new ArrayList<>();
+    this.accountService.streamStatement(debtorAccount, today.minusDays(6L), null, laterLines::addAll);
+    Assertions.assertEquals(1, laterLines.size());
+    Assertions.assertEquals(laterSequence, laterLines.get(0).getJournalSequence());
+    Assertions.assertEquals(0, BigDecimal.valueOf(16L).negate().compareTo(laterLines.get(0).getRunningBalance()));
+  }
+
+  @Test
+  public void givenJournalWithoutValueDate_whenStreamingStatement_shouldMatchBalance() {
+    final String debtorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .bookingDate(today)
+            .build()
+    );
+
+    final Allocation debtor = new Allocation();
+    debtor.setAccountReference(debtorAccount);
+    debtor.setAmount(BigDecimal.TEN);
+    final Allocation creditor = new Allocation();
+    creditor.setAccountReference(this.randomString());
+    creditor.setAmount(BigDecimal.TEN);
+    this.journalRequestProcessor.process(
+        sequence,
+        AddItemRequest
+            .create(this.randomString())
+            .source(debtor)
+            .addTarget(creditor)
+            .build()
+    );
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.RELEASE));
+
+    final List<StatementLine> lines = new ArrayList<>();
+    this.accountService.streamStatement(debtorAccount, today, today, lines::addAll);
+    Assertions.assertEquals(1, lines.size());
+    Assertions.assertEquals(sequence, lines.get(0).getJournalSequence());
+    Assertions.assertEquals(0, lines.get(0).getRunningBalance()
+        .compareTo(this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()));
+  }
+
+  @Test
+  public void givenReleasedJournals_whenFetchingPostings_shouldReturnPostingsOfAccount() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    final Long firstSequence = this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today);
+    final Long secondSequence = this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE, today);
+
+    final List<Posting> postings = this.accountService.fetchPostings(debtorAccount);
+    Assertions.assertEquals(2, postings.size());
+    Assertions.assertEquals(firstSequence, postings.get(0).getJournalSequence());
+    Assertions.assertEquals(0, BigDecimal.TEN.negate().compareTo(postings.get(0).getAmount()));
+    Assertions.assertEquals(secondSequence, postings.get(1).getJournalSequence());
+    Assertions.assertEquals(0, BigDecimal.ONE.negate().compareTo(postings.get(1).getAmount()));
+
+    Assertions.assertEquals(2, this.accountService.fetchPostings(creditorAccount).size());
+  }
+
+  @Test
+  public void givenMissingProjections_whenRebuildingAccounts_shouldRestorePostingsAndBalances() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    final Long firstSequence = this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today);
+    final Long secondSequence =
+        this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE, today.plusDays(2L));
+
+    this.postingRepository.deleteAll(this.postingRepository.findAllByJournalSequence(firstSequence));
+    this.postingRepository.deleteAll(this.postingRepository.findAllByJournalSequence(secondSequence));
+    this.accountRepository.deleteById(debtorAccount);
+    this.accountRepository.deleteById(creditorAccount);
+
+    Assertions.assertTrue(this.rebuildService.rebuildAccounts() >= 2);
+
+    Assertions.assertEquals(2, this.accountService.fetchPostings(debtorAccount).size());
+    Assertions.assertEquals(0, BigDecimal.TEN.negate().compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.TEN.compareTo(
+        this.accountService.determineBalance(creditorAccount, "EUR").getAccountBalance()));
+    Assertions.assertEquals(secondSequence,
+        this.accountRepository.findById(debtorAccount).orElseThrow().getLastSynchronizedSequence());
+  }
+
+  @Test
+  public void givenMissingDailyBalances_whenRebuilding_shouldRestoreClosingBalancesFromPostings() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today.minusDays(3L));
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE, today.minusDays(5L));
+    this.dailyBalanceRepository.deleteAll(
+        this.dailyBalanceRepository.findAllByAccountReferenceAndValueDateGreaterThanEqual(
+            creditorAccount, LocalDate.MIN));
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(
+        this.accountService.determineBalance(creditorAccount, "EUR", today).getAccountBalance()));
+
+    Assertions.assertTrue(this.rebuildService.rebuildDailyBalances() >= 2);
+
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(
+        this.accountService.determineBalance(creditorAccount, "EUR", today.minusDays(6L)).getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.ONE.compareTo(
+        this.accountService.determineBalance(creditorAccount, "EUR", today.minusDays(4L)).getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.valueOf(11L).compareTo(
+        this.accountService.determineBalance(creditorAccount, "EUR", today).getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.valueOf(11L).negate().compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR", today).getAccountBalance()));
+  }
+
+  @Test
+  public void givenIngestionBatch_whenProcessing_shouldPersistAndReleaseJournals() throws Exception {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    final List<IngestJournalRequest> requests = new ArrayList<>();
+    for (int index = 0; index < 10; index++) {
+      final Allocation debtor = new Allocation();
+      debtor.setAccountReference(debtorAccount);
+      debtor.setAmount(BigDecimal.ONE);
+
+      final Allocation creditor = new Allocation();
+      creditor.setAccountReference(creditorAccount);
+      creditor.setAmount(BigDecimal.ONE);
+
+      requests.add(
+          IngestJournalRequest
+              .create(
+                  CreateJournalRequest
+                      .create(this.randomString(), "EUR")
+                      .valueDate(today)
+                      .bookingDate(today)
+                      .build()
+              )
+              .addItem(
+                  AddItemRequest
+                      .create(this.randomString())
+                      .source(debtor)
+                      .addTarget(creditor)
+                      .build()
+              )
+              .action(index % 2 == 0 ? Action.RELEASE : null)
+              .build()
+      );
+    }
+
+    final List<Long> sequences = this.journalRequestProcessor.process(requests);
+    Assertions.assertEquals(10, sequences.size());
+
+    final Journal releasedJournal = this.journalService.findJournal(sequences.get(0));
+    Assertions.assertEquals(Journal.State.RELEASED, releasedJournal.getState());
+    Assertions.assertTrue(
+        this.fingerprintService.valid(releasedJournal.getFingerPrint(), releasedJournal.getSequence()));
+    Assertions.assertEquals(1, this.journalService.findAllItemsByJournal(sequences.get(0)).size());
+
+    final Journal preparedJournal = this.journalService.findJournal(sequences.get(1));
+    Assertions.assertEquals(Journal.State.PREPARATION, preparedJournal.getState());
+
+    final Balance debtorBalance = this.accountService.determineBalance(debtorAccount, "EUR");
+    Assertions.assertEquals(0, BigDecimal.valueOf(5L).negate().compareTo(debtorBalance.getAccountBalance()));
+
+    Assertions.assertEquals(sequences, this.journalRequestProcessor.process(requests));
+    Assertions.assertEquals(0, BigDecimal.valueOf(5L).negate().compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()));
+
+    requests.get(0).getItems().get(0).setPurpose(this.randomString());
+    Assertions.assertThrows(ResourceConflictException.class,
+        () -> this.journalRequestProcessor.process(requests.subList(0, 1)));
+  }
+
+  @Test
+  public void givenConcurrentRetries_whenCreatingJournal_shouldReplayOriginalSequence() throws Exception {
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final CreateJournalRequest request =
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(today)
+            .bookingDate(today)
+            .build();
+
+    final int threadCount = 8;
+    final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+    try {
+      final List<Future<Long>> futures = new ArrayList<>();
+      for (int thread = 0; thread < threadCount; thread++) {
+        futures.add(executorService.submit(() -> this.journalRequestProcessor.process(request)));
+      }
+
+      final Long sequence = futures.get(0).get();
+      for (final Future<Long> future : futures) {
+        Assertions.assertEquals(sequence, future.get());
+      }
+      Assertions.assertEquals(sequence, this.journalRequestProcessor.process(request));
+      Assertions.assertEquals(1, this.journalRepository.findAllByIdentifierIn(Set.of(request.getIdentifier())).size());
+    } finally {
+      executorService.shutdownNow();
+    }
+
+    Assertions.assertThrows(ResourceConflictException.class,
+        () -> this.journalRequestProcessor.process(
+            CreateJournalRequest
+                .create(request.getIdentifier(), "USD")
+                .valueDate(today)
+                .bookingDate(today)
+                .build()
+        )
+    );
+  }
+
+  @Test
+  public void givenConcurrentReleases_whenTransitioningJournal_shouldPostOnce() throws Exception {
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today);
+
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(today)
+            .bookingDate(today)
+            .build()
+    );
+    final Allocation debtor = new Allocation();
+    debtor.setAccountReference(debtorAccount);
+    debtor.setAmount(BigDecimal.ONE);
+    final Allocation creditor = new Allocation();
+    creditor.setAccountReference(creditorAccount);
+    creditor.setAmount(BigDecimal.ONE);
+    this.journalRequestProcessor.process(
+        sequence,
+        AddItemRequest
+            .create(this.randomString())
+            .source(debtor)
+            .addTarget(creditor)
+            .build()
+    );
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+
+    final int threadCount = 8;
+    final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+    int released = 0;
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < threadCount; thread++) {
+        futures.add(executorService.submit(() ->
+            this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.RELEASE))));
+      }
+      for (final Future<?> future : futures) {
+        try {
+          future.get();
+          released++;
+        } catch (final ExecutionException eex) {
+          Assertions.assertTrue(eex.getCause() instanceof ResourceConflictException);
+        }
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+
+    Assertions.assertEquals(1, released);
+    Assertions.assertEquals(0, BigDecimal.valueOf(11L).compareTo(
+        this.accountService.determineBalance(creditorAccount, "EUR").getAccountBalance()));
+    Assertions.assertEquals(0, BigDecimal.valueOf(-11L).compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()));
+  }
+
+  @Test
+  public void givenLegacyJournal_whenRetryingCreation_shouldReplayOriginalSequence() {
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final CreateJournalRequest request =
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(today)
+            .bookingDate(today)
+            .build();
+
+    final Long sequence = this.journalRequestProcessor.process(request);
+    this.journalIdentifierRegion.remove(request.getIdentifier());
+
+    Assertions.assertEquals(sequence, this.journalRequestProcessor.process(request));
+    Assertions.assertEquals(1, this.journalRepository.findAllByIdentifierIn(Set.of(request.getIdentifier())).size());
+    Assertions.assertEquals(sequence, this.journalIdentifierRegion.get(request.getIdentifier()).getSequence());
+
+    this.journalIdentifierRegion.remove(request.getIdentifier());
+    Assertions.assertTrue(this.rebuildService.backfillIdentifiers() >= 1);
+    Assertions.assertEquals(sequence, this.journalIdentifierRegion.get(request.getIdentifier()).getSequence());
+  }
+
+  @Test
+  public void givenPendingIdentifier_whenRetryingCreation_shouldReplayOrRejectByJournalPresence() {
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final CreateJournalRequest request =
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(today)
+            .bookingDate(today)
+            .build();
+
+    final Long sequence = this.journalRequestProcessor.process(request);
+    final JournalIdentifier pendingIdentifier =
+        JournalIdentifier.of(request.getIdentifier(), sequence, this.fingerprintService.digest(request));
+    pendingIdentifier.setPending(Boolean.TRUE);
+    this.journalIdentifierRegion.put(request.getIdentifier(), pendingIdentifier);
+
+    Assertions.assertEquals(sequence, this.journalRequestProcessor.process(request));
+    Assertions.assertEquals(Boolean.FALSE, this.journalIdentifierRegion.get(request.getIdentifier()).getPending());
+
+    final CreateJournalRequest claimedRequest =
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(today)
+            .bookingDate(today)
+            .build();
+    final JournalIdentifier claim =
+        JournalIdentifier.of(claimedRequest.getIdentifier(), -1L, this.fingerprintService.digest(claimedRequest));
+    claim.setPending(Boolean.TRUE);
+    this.journalIdentifierRegion.put(claimedRequest.getIdentifier(), claim);
+
+    Assertions.assertThrows(ResourceConflictException.class,
+        () -> this.journalRequestProcessor.process(claimedRequest));
+
+    claim.setCreatedAt(claim.getCreatedAt().minusHours(1L));
+    this.journalIdentifierRegion.put(claimedRequest.getIdentifier(), claim);
+
+    final Long claimedSequence = this.journalRequestProcessor.process(claimedRequest);
+    Assertions.assertEquals(1,
+        this.journalRepository.findAllByIdentifierIn(Set.of(claimedRequest.getIdentifier())).size());
+    Assertions.assertEquals(claimedSequence,
+        this.journalIdentifierRegion.get(claimedRequest.getIdentifier()).getSequence());
+    Assertions.assertEquals(Boolean.FALSE,
+        this.journalIdentifierRegion.get(claimedRequest.getIdentifier()).getPending());
+  }
+
+  @Test
+  public void givenJournals_whenFetchingSlices_shouldWalkAllJournalsDescending() {
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+    final Long sequence = this.releaseJournal(this.randomString(), this.randomString(), BigDecimal.ONE, today);
+    this.releaseJournal(this.randomString(), this.randomString(), BigDecimal.ONE, today);
+    this.releaseJournal(this.randomString(), this.randomString(), BigDecimal.ONE, today);
+
+    final List<Long> sequences = new ArrayList<>();
+    Long after = null;
+    do {
+      final TypedSlice<Journal> slice = this.journalService.fetchJournals(after, 2);
+      Assertions.assertTrue(slice.getElements().size() <= 2);
+      slice.getElements().forEach(journal -> sequences.add(journal.getSequence()));
+      after = slice.getNext();
+    } while (after != null);
+
+    Assertions.assertTrue(sequences.contains(sequence));
+    for (int index = 1; index < sequences.size(); index++) {
+      Assertions.assertTrue(sequences.get(index - 1) > sequences.get(index));
+    }
+
+    final List<JournalEntry> entries = new ArrayList<>();
+    this.journalService.exportJournals(2, entries::addAll);
+    Assertions.assertEquals(sequences.size(), entries.size());
+    final JournalEntry entry = entries.stream()
+        .filter(candidate -> candidate.getJournal().getSequence().equals(sequence))
+        .findFirst()
+        .orElseThrow();
+    Assertions.assertEquals(1, entry.getItems().size());
+  }
+
+  @Test
+  public void givenReleasedJournals_whenComputingBalances_shouldMatchProjectedBalances() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today);
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE, today.plusDays(2L));
+    this.releaseJournal(creditorAccount, debtorAccount, BigDecimal.valueOf(3L), today.minusDays(1L));
+
+    final List<Balance> balances =
+        this.accountService.computeBalances(List.of(debtorAccount, creditorAccount), "EUR");
+    Assertions.assertEquals(2, balances.size());
+
+    final Balance debtorBalance = balances.get(0);
+    Assertions.assertEquals(debtorAccount, debtorBalance.getAccountNumber());
+    Assertions.assertEquals(0, BigDecimal.valueOf(7L).negate().compareTo(debtorBalance.getAccountBalance()));
+    Assertions.assertEquals(0, this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()
+        .compareTo(debtorBalance.getAccountBalance()));
+
+    final Balance creditorBalance = balances.get(1);
+    Assertions.assertEquals(creditorAccount, creditorBalance.getAccountNumber());
+    Assertions.assertEquals(0, BigDecimal.valueOf(7L).compareTo(creditorBalance.getAccountBalance()));
+  }
+
+  @Test
+  public void givenReleasedJournals_whenStreamingBalances_shouldEmitBalancesInRequestOrder() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+    final String unknownAccount = this.randomString();
+    final LocalDate today = LocalDate.now(Clock.systemUTC());
+
+    this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.TEN, today);
+    this.releaseJournal(creditorAccount, debtorAccount, BigDecimal.valueOf(3L), today.minusDays(1L));
+
+    final List<Balance> balances = new ArrayList<>();
+    this.accountService.streamBalances(List.of(debtorAccount, unknownAccount, creditorAccount, debtorAccount),
+        "EUR", balances::addAll);
+    Assertions.assertEquals(3, balances.size());
+
+    Assertions.assertEquals(debtorAccount, balances.get(0).getAccountNumber());
+    Assertions.assertEquals(0, BigDecimal.valueOf(7L).negate().compareTo(balances.get(0).getAccountBalance()));
+    Assertions.assertEquals(unknownAccount, balances.get(1).getAccountNumber());
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(balances.get(1).getAccountBalance()));
+    Assertions.assertEquals(creditorAccount, balances.get(2).getAccountNumber());
+    Assertions.assertEquals(0, this.accountService.determineBalance(creditorAccount, "EUR").getAccountBalance()
+        .compareTo(balances.get(2).getAccountBalance()));
+  }
+
+  @Test
+  public void givenJournalWithItems_whenFetchingByJournal_shouldOnlyReturnOwnedItems() {
+    final Long sequence = this.releaseJournal(this.randomString(), this.randomString(),
+        BigDecimal.ONE, LocalDate.now(Clock.systemUTC()));
+    final Long otherSequence = this.releaseJournal(this.randomString(), this.randomString(),
+        BigDecimal.TEN, LocalDate.now(Clock.systemUTC()));
+
+    final List<JournalItem> journalItems = this.journalItemService.findItems(sequence);
+    Assertions.assertEquals(1, journalItems.size());
+
+    final JournalItem journalItem = journalItems.get(0);
+    Assertions.assertEquals(sequence, journalItem.getJournalSequence());
+    Assertions.assertTrue(this.journalItemService.findItem(sequence, journalItem.getSequence()).isPresent());
+    Assertions.assertTrue(this.journalItemService.findItem(otherSequence, journalItem.getSequence()).isEmpty());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void givenColocatedEntries_whenResolvingPartition_shouldRouteToOwningJournal() {
+    final Long journalSequence = this.random.nextLong();
+    final JournalItem journalItem = new JournalItem();
+    journalItem.setJournalSequence(journalSequence);
+    final Document document = new Document();
+    document.setJournalSequence(journalSequence);
+    final JournalPartitionResolver partitionResolver = new JournalPartitionResolver();
+
+    final EntryOperation<Long, Object> journalOperation = Mockito.mock(EntryOperation.class);
+    Mockito.when(journalOperation.getKey()).thenReturn(journalSequence);
+    Assertions.assertEquals(journalSequence, partitionResolver.getRoutingObject(journalOperation));
+
+    final EntryOperation<Long, Object> itemOperation = Mockito.mock(EntryOperation.class);
+    Mockito.when(itemOperation.getKey()).thenReturn(this.random.nextLong());
+    Mockito.when(itemOperation.getNewValue()).thenReturn(journalItem);
+    Assertions.assertEquals(journalSequence, partitionResolver.getRoutingObject(itemOperation));
+
+    final EntryOperation<Long, Object> documentOperation = Mockito.mock(EntryOperation.class);
+    Mockito.when(documentOperation.getKey()).thenReturn(this.random.nextLong());
+    Mockito.when(documentOperation.getNewValue()).thenReturn(document);
+    Assertions.assertEquals(journalSequence, partitionResolver.getRoutingObject(documentOperation));
+
+    final EntryOperation<Long, Object> lookupOperation = Mockito.mock(EntryOperation.class);
+    Mockito.when(lookupOperation.getKey()).thenReturn(this.random.nextLong());
+    Mockito.when(lookupOperation.getCallbackArgument()).thenReturn(journalSequence);
+    Assertions.assertEquals(journalSequence, partitionResolver.getRoutingObject(lookupOperation));
+  }
+
+  @Test
+  public void givenLargeDocument_whenUploadingStream_shouldStoreChunksAndServeRanges() throws Exception {
+    final LocalDate now = LocalDate.now(Clock.systemUTC());
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(now)
+            .bookingDate(now)
+            .build()
+    );
+
+    final Allocation debtor = new Allocation();
+    debtor.setAccountReference(this.randomString());
+    debtor.setAmount(BigDecimal.ONE);
+    final Allocation creditor = new Allocation();
+    creditor.setAccountReference(this.randomString());
+    creditor.setAmount(BigDecimal.ONE);
+    this.journalRequestProcessor.process(
+        sequence,
+        AddItemRequest
+            .create(this.randomString())
+            .source(debtor)
+            .addTarget(creditor)
+            .build()
+    );
+    final JournalItem journalItem = this.journalService.findAllItemsByJournal(sequence).get(0);
+
+    final byte[] content = new byte[1_250_000];
+    random.nextBytes(content);
+    final Document document = this.journalRequestProcessor.process(sequence, journalItem.getSequence(),
+        "application/pdf", new ByteArrayInputStream(content));
+    Assertions.assertEquals(Long.valueOf(content.length), document.getBytes());
+    final DocumentBlob documentBlob = this.documentService.findBlob(document.getContentHash()).orElseThrow();
+    Assertions.assertEquals(
+        Integer.valueOf((content.length + documentBlob.getChunkSize() - 1) / documentBlob.getChunkSize()),
+        documentBlob.getChunkCount());
+
+    Assertions.assertEquals(document.getContentHash(),
+        this.documentService.findDocument(sequence, journalItem.getSequence(), document.getSequence())
+            .getContentHash());
+    final long start = documentBlob.getChunkSize() - 10L;
+    final long end = documentBlob.getChunkSize() + 10L;
+    final ByteArrayOutputStream range = new ByteArrayOutputStream();
+    this.documentService.read(documentBlob, start, end, range);
+    Assertions.assertArrayEquals(Arrays.copyOfRange(content, (int) start, (int) end + 1), range.toByteArray());
+
+    final ByteArrayOutputStream full = new ByteArrayOutputStream();
+    this.documentService.read(documentBlob, 0L, content.length - 1L, full);
+    Assertions.assertArrayEquals(content, full.toByteArray());
+
+    for (final String mimeType : List.of("pdf", "application/*", "")) {
+      Assertions.assertThrows(RequestValidationException.class,
+          () -> this.journalRequestProcessor.process(sequence, journalItem.getSequence(), mimeType,
+              new ByteArrayInputStream(content)));
+    }
+  }
+
+  @Test
+  public void givenSameContent_whenAttachingTwice_shouldShareBlobUntilDetached() throws Exception {
+    final LocalDate now = LocalDate.now(Clock.systemUTC());
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(now)
+            .bookingDate(now)
+            .build()
+    );
+
+    final Allocation debtor = new Allocation();
+    debtor.setAccountReference(this.randomString());
+    debtor.setAmount(BigDecimal.ONE);
+    final Allocation creditor = new Allocation();
+    creditor.setAccountReference(this.randomString());
+    creditor.setAmount(BigDecimal.ONE);
+    this.journalRequestProcessor.process(
+        sequence,
+        AddItemRequest
+            .create(this.randomString())
+            .source(debtor)
+            .addTarget(creditor)
+            .build()
+    );
+    final JournalItem journalItem = this.journalService.findAllItemsByJournal(sequence).get(0);
+
+    final AttachDocumentRequest attachDocumentRequest =
+        AttachDocumentRequest
+            .create(MimeTypeUtils.APPLICATION_JSON_VALUE)
+            .content(this.randomString())
+            .build();
+    final Document firstDocument =
+        this.journalRequestProcessor.process(sequence, journalItem.getSequence(), attachDocumentRequest);
+    final Document secondDocument =
+        this.journalRequestProcessor.process(sequence, journalItem.getSequence(), attachDocumentRequest);
+
+    Assertions.assertNotEquals(firstDocument.getSequence(), secondDocument.getSequence());
+    Assertions.assertEquals(firstDocument.getContentHash(), secondDocument.getContentHash());
+    Assertions.assertEquals(Long.valueOf(2L),
+        this.documentService.findBlob(firstDocument.getContentHash()).orElseThrow().getReferences());
+
+    this.journalRequestProcessor.detachDocument(sequence, journalItem.getSequence(), firstDocument.getSequence());
+    Assertions.assertEquals(Long.valueOf(1L),
+        this.documentService.findBlob(firstDocument.getContentHash()).orElseThrow().getReferences());
+    Assertions.assertEquals(attachDocumentRequest.getContent(),
+        this.readContent(secondDocument));
+
+    this.journalRequestProcessor.detachDocument(sequence, journalItem.getSequence(), secondDocument.getSequence());
+    Assertions.assertTrue(this.documentService.findBlob(firstDocument.getContentHash()).isEmpty());
+    Assertions.assertTrue(this.journalService.findAllDocumentsByJournalItem(journalItem.getSequence()).isEmpty());
+  }
+
+  @Test
+  public void givenLegacyDocumentWithInlineContent_whenMigrating_shouldMoveContentToBlob() throws Exception {
+    final Long sequence = this.releaseJournal(this.randomString(), this.randomString(),
+        BigDecimal.ONE, LocalDate.now(Clock.systemUTC()));
+    final JournalItem journalItem = this.journalItemService.findItems(sequence).get(0);
+
+    final Document legacyDocument = new Document();
+    legacyDocument.setSequence(this.random.nextLong());
+    legacyDocument.setJournalItemSequence(journalItem.getSequence());
+    legacyDocument.setMimeType(MimeTypeUtils.TEXT_PLAIN_VALUE);
+    legacyDocument.setContent(this.randomString());
+    this.documentRepository.save(legacyDocument);
+
+    Assertions.assertTrue(this.documentService.migrateLegacyDocuments() >= 1);
+
+    final Document document =
+        this.documentService.findDocument(sequence, journalItem.getSequence(), legacyDocument.getSequence());
+    Assertions.assertNull(document.getContent());
+    Assertions.assertNotNull(document.getContentHash());
+    Assertions.assertEquals(Long.valueOf(legacyDocument.getContent().length()), document.getBytes());
+    Assertions.assertEquals(legacyDocument.getContent(), this.readContent(document));
+    Assertions.assertEquals(0, this.documentService.migrateLegacyDocuments());
+  }
+
+  private String readContent(final Document document) throws Exception {
+    final DocumentBlob documentBlob = this.documentService.findBlob(document);
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    this.documentService.read(documentBlob, 0L, documentBlob.getBytes() - 1L, outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8);
+  }
+
+  private Long releaseJournal(final String debtorAccount, final String creditorAccount,
+      final BigDecimal amount, final LocalDate valueDate) {
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(valueDate)
+            .bookingDate(valueDate)
+            .build()
+    );
+
+    final Allocation debtor = new Allocation();
+    debtor.setAccountReference(debtorAccount);
+    debtor.setAmount(amount);
+
+    final Allocation creditor = new Allocation();
+    creditor.setAccountReference(creditorAccount);
+    creditor.setAmount(amount);
+
+    this.journalRequestProcessor.process(
+        sequence,
+        AddItemRequest
+            .create(this.randomString())
+            .source(debtor)
+            .addTarget(creditor)
+            .build()
+    );
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.RELEASE));
+    return sequence;
+  }
+
   private String randomString() {
     final byte[] randomBytes = new byte[32];
     random.nextBytes(randomBytes);
@@ -0,0 +1,218 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.Balance;
+import io.conjuror.component.journal.common.JournalEntry;
+import io.conjuror.component.journal.common.LedgerAudit;
+import io.conjuror.component.journal.data.AccountSnapshot;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.processor.JournalRequestProcessor;
+import io.conjuror.component.journal.repository.AccountRepository;
+import io.conjuror.component.journal.repository.AccountSnapshotRepository;
+import io.conjuror.component.journal.request.AddItemRequest;
+import io.conjuror.component.journal.request.AddItemRequest.Allocation;
+import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.NONE,
+    classes = {
+        TestConfiguration.class
+    }
+)
+public class TestLedgerLogService {
+
+  private static final Random RANDOM = new Random();
+
+  @Autowired
+  private JournalRequestProcessor journalRequestProcessor;
+
+  @Autowired
+  private JournalService journalService;
+
+  @Autowired
+  private FingerprintService fingerprintService;
+
+  @Autowired
+  private LedgerLogService ledgerLogService;
+
+  @Autowired
+  private SnapshotService snapshotService;
+
+  @Autowired
+  private AccountService accountService;
+
+  @Autowired
+  private AccountRepository accountRepository;
+
+  @Autowired
+  private AccountSnapshotRepository accountSnapshotRepository;
+
+  public TestLedgerLogService() {
+    super();
+  }
+
+  @Test
+  public void givenReleasedJournal_whenReadingLedger_shouldMatchRegionState() {
+    final Long sequence = this.createJournal(3);
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    Assertions.assertFalse(this.ledgerLogService.contains(sequence));
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.RELEASE));
+
+    final Journal journal = this.journalService.findJournal(sequence);
+    final List<JournalItem> journalItems = this.journalService.findAllItemsByJournal(sequence);
+    final JournalEntry entry = this.ledgerLogService.find(sequence).orElseThrow();
+    Assertions.assertEquals(journal.getFingerPrint(), entry.getJournal().getFingerPrint());
+    Assertions.assertEquals(journal.getMerkleRoot(), entry.getJournal().getMerkleRoot());
+    Assertions.assertEquals(journal.getCreatedAt(), entry.getJournal().getCreatedAt());
+    Assertions.assertEquals(journalItems.size(), entry.getItems().size());
+    for (int index = 0; index < journalItems.size(); index++) {
+      Assertions.assertEquals(journalItems.get(index).getSequence(), entry.getItems().get(index).getSequence());
+      Assertions.assertEquals(journalItems.get(index).getLeafHash(), entry.getItems().get(index).getLeafHash());
+      Assertions.assertEquals(0, journalItems.get(index).getSource().getAmount()
+          .compareTo(entry.getItems().get(index).getSource().getAmount()));
+    }
+    Assertions.assertTrue(
+        this.fingerprintService.valid(journal.getFingerPrint(), entry.getJournal(), entry.getItems()));
+
+    final AtomicBoolean replayed = new AtomicBoolean(false);
+    this.ledgerLogService.replay(replayedEntry -> {
+      if (sequence.equals(replayedEntry.getJournal().getSequence())) {
+        replayed.set(true);
+      }
+    });
+    Assertions.assertTrue(replayed.get());
+
+    final LedgerAudit audit = this.ledgerLogService.audit();
+    Assertions.assertTrue(audit.getValid(), audit.getFailure());
+    Assertions.assertTrue(audit.getRecords() > 0L);
+  }
+
+  @Test
+  public void givenOpenJournal_whenTakingSnapshot_shouldKeepWatermarkBelowIt() {
+    final Long releasedSequence = this.createJournal(1);
+    this.journalRequestProcessor.process(releasedSequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    this.journalRequestProcessor.process(releasedSequence, TransitionJournalRequest.of(Action.RELEASE));
+    final Long openSequence = this.createJournal(1);
+    this.journalRequestProcessor.process(openSequence, TransitionJournalRequest.of(Action.SCHEDULE));
+
+    final Long watermark = this.snapshotService.takeSnapshot();
+    Assertions.assertNotNull(watermark);
+    Assertions.assertTrue(watermark < openSequence);
+  }
+
+  @Test
+  public void givenSnapshot_whenAccountIsMissing_shouldRestoreFromSnapshotAndPostingTail() {
+    final String debtorAccount = this.randomString();
+    final Long firstSequence = this.createJournal(2, debtorAccount);
+    this.journalRequestProcessor.process(firstSequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    this.journalRequestProcessor.process(firstSequence, TransitionJournalRequest.of(Action.RELEASE));
+    final Balance firstBalance = this.accountService.determineBalance(debtorAccount, "EUR");
+
+    final AccountSnapshot snapshot = new AccountSnapshot();
+    snapshot.setNumber(debtorAccount);
+    snapshot.setJournalWatermark(firstSequence);
+    snapshot.setTakenAt(LocalDateTime.now());
+    snapshot.setBalances(new HashMap<>(Map.of("EUR", firstBalance.getAccountBalance())));
+    snapshot.setPendingBalances(new HashMap<>());
+    this.accountSnapshotRepository.save(snapshot);
+
+    this.accountRepository.deleteById(debtorAccount);
+    Assertions.assertEquals(0, firstBalance.getAccountBalance()
+        .compareTo(this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()));
+    Assertions.assertTrue(this.accountRepository.findById(debtorAccount).isEmpty());
+
+    final Long secondSequence = this.createJournal(1, debtorAccount);
+    this.journalRequestProcessor.process(secondSequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    this.journalRequestProcessor.process(secondSequence, TransitionJournalRequest.of(Action.RELEASE));
+    final Balance secondBalance = this.accountService.determineBalance(debtorAccount, "EUR");
+    Assertions.assertEquals(0, firstBalance.getAccountBalance().subtract(BigDecimal.valueOf(1L, 2))
+        .compareTo(secondBalance.getAccountBalance()));
+
+    this.accountRepository.deleteById(debtorAccount);
+    Assertions.assertEquals(0, secondBalance.getAccountBalance()
+        .compareTo(this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()));
+  }
+
+  private Long createJournal(final int itemCount) {
+    return this.createJournal(itemCount, null);
+  }
+
+  private Long createJournal(final int itemCount, final String debtorAccount) {
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(LocalDate.now())
+            .bookingDate(LocalDate.now())
+            .build()
+    );
+
+    for (int index = 0; index < itemCount; index++) {
+      final Allocation debtor = new Allocation();
+      debtor.setAccountReference(debtorAccount != null ? debtorAccount : this.randomString());
+      debtor.setAmount(BigDecimal.valueOf(index + 1L, 2));
+
+      final Allocation creditor = new Allocation();
+      creditor.setAccountReference(this.randomString());
+      creditor.setAmount(BigDecimal.valueOf(index + 1L, 2));
+
+      this.journalRequestProcessor.process(
+          sequence,
+          AddItemRequest
+              .create(this.randomString())
+              .source(debtor)
+              .addTarget(creditor)
+              .build()
+      );
+    }
+    return sequence;
+  }
+
+  private String randomString() {
+    final byte[] randomBytes = new byte[32];
+    RANDOM.nextBytes(randomBytes);
+    return Base64.getEncoder().encodeToString(randomBytes);
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.MerkleProof;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.processor.JournalRequestProcessor;
+import io.conjuror.component.journal.request.AddItemRequest;
+import io.conjuror.component.journal.request.AddItemRequest.Allocation;
+import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.NONE,
+    classes = {
+        TestConfiguration.class
+    }
+)
+public class TestMerkleService {
+
+  private static final Random RANDOM = new Random();
+
+  @Autowired
+  private JournalRequestProcessor journalRequestProcessor;
+
+  @Autowired
+  private JournalService journalService;
+
+  @Autowired
+  private MerkleService merkleService;
+
+  @Autowired
+  private AccountService accountService;
+
+  public TestMerkleService() {
+    super();
+  }
+
+  @Test
+  public void givenScheduledJournal_whenProvingEachItem_shouldVerify() {
+    final Long sequence = this.scheduleJournal(7);
+    final Journal journal = this.journalService.findJournal(sequence);
+    Assertions.assertNotNull(journal.getMerkleRoot());
+    Assertions.assertEquals(7L, journal.getItemCount());
+
+    for (final JournalItem journalItem : this.journalService.findAllItemsByJournal(sequence)) {
+      final MerkleProof proof = this.merkleService.prove(sequence, journalItem.getSequence());
+      Assertions.assertEquals(journal.getMerkleRoot(), proof.getRoot());
+      Assertions.assertEquals(7L, proof.getTreeSize());
+      Assertions.assertTrue(this.merkleService.verify(sequence, journalItem.getSequence(), proof));
+    }
+  }
+
+  @Test
+  public void givenTamperedProof_whenVerifying_shouldReject() {
+    final Long sequence = this.scheduleJournal(5);
+    final JournalItem journalItem = this.journalService.findAllItemsByJournal(sequence).get(2);
+    final MerkleProof proof = this.merkleService.prove(sequence, journalItem.getSequence());
+
+    final List<String> tamperedPath = new ArrayList<>(proof.getAuditPath());
+    tamperedPath.set(0, tamperedPath.get(1));
+    proof.setAuditPath(tamperedPath);
+    Assertions.assertFalse(this.merkleService.verify(sequence, journalItem.getSequence(), proof));
+
+    final MerkleProof shiftedProof = this.merkleService.prove(sequence, journalItem.getSequence());
+    shiftedProof.setPosition(shiftedProof.getPosition() + 1L);
+    Assertions.assertFalse(this.merkleService.verify(sequence, journalItem.getSequence(), shiftedProof));
+  }
+
+  @Test
+  public void givenSingleItem_whenProving_shouldUseLeafAsRoot() {
+    final Long sequence = this.scheduleJournal(1);
+    final JournalItem journalItem = this.journalService.findAllItemsByJournal(sequence).get(0);
+    final MerkleProof proof = this.merkleService.prove(sequence, journalItem.getSequence());
+
+    Assertions.assertTrue(proof.getAuditPath().isEmpty());
+    Assertions.assertEquals(proof.getLeafHash(), proof.getRoot());
+    Assertions.assertTrue(this.merkleService.verify(sequence, journalItem.getSequence(), proof));
+  }
+
+  @Test
+  public void givenConcurrentlyAddedItems_whenScheduling_shouldProveEveryItem() throws Exception {
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(LocalDate.now())
+            .bookingDate(LocalDate.now())
+            .build()
+    );
+    final String debtorAccount = this.randomString();
+
+    final int itemCount = 16;
+    final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int index = 0; index < itemCount; index++) {
+        futures.add(executorService.submit(() -> {
+          final Allocation debtor = new Allocation();
+          debtor.setAccountReference(debtorAccount);
+          debtor.setAmount(BigDecimal.ONE);
+
+          final Allocation creditor = new Allocation();
+          creditor.setAccountReference(this.randomString());
+          creditor.setAmount(BigDecimal.ONE);
+
+          this.journalRequestProcessor.process(
+              sequence,
+              AddItemRequest
+                  .create(this.randomString())
+                  .source(debtor)
+                  .addTarget(creditor)
+                  .build()
+          );
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdown();
+    }
+
+    Assertions.assertEquals((long) itemCount, this.journalService.findJournal(sequence).getItemCount());
+    final List<JournalItem> addedItems = new ArrayList<>(this.journalService.findAllItemsByJournal(sequence));
+    addedItems.sort(Comparator.comparing(JournalItem::getPosition));
+    for (int index = 0; index < addedItems.size(); index++) {
+      Assertions.assertEquals((long) index, addedItems.get(index).getPosition());
+      Assertions.assertNotNull(addedItems.get(index).getLeafHash());
+    }
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    final Journal journal = this.journalService.findJournal(sequence);
+    Assertions.assertEquals((long) itemCount, journal.getItemCount());
+    Assertions.assertEquals(journal.getMerkleRoot(), this.merkleService.computeRoot(addedItems));
+
+    for (final JournalItem journalItem : this.journalService.findAllItemsByJournal(sequence)) {
+      final MerkleProof proof = this.merkleService.prove(sequence, journalItem.getSequence());
+      Assertions.assertEquals((long) itemCount, proof.getTreeSize());
+      Assertions.assertTrue(this.merkleService.verify(sequence, journalItem.getSequence(), proof));
+    }
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.RELEASE));
+    Assertions.assertEquals(0, BigDecimal.valueOf(itemCount).negate().compareTo(
+        this.accountService.determineBalance(debtorAccount, "EUR").getAccountBalance()));
+  }
+
+  private Long scheduleJournal(final int itemCount) {
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(LocalDate.now())
+            .bookingDate(LocalDate.now())
+            .build()
+    );
+
+    for (int index = 0; index < itemCount; index++) {
+      final Allocation debtor = new Allocation();
+      debtor.setAccountReference(this.randomString());
+      debtor.setAmount(BigDecimal.valueOf(index + 1L));
+
+      final Allocation creditor = new Allocation();
+      creditor.setAccountReference(this.randomString());
+      creditor.setAmount(BigDecimal.valueOf(index + 1L));
+
+      this.journalRequestProcessor.process(
+          sequence,
+          AddItemRequest
+              .create(this.randomString())
+              .source(debtor)
+              .addTarget(creditor)
+              .build()
+      );
+    }
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    return sequence;
+  }
+
+  private String randomString() {
+    final byte[] randomBytes = new byte[32];
+    RANDOM.nextBytes(randomBytes);
+    return Base64.getEncoder().encodeToString(randomBytes);
+  }
+}
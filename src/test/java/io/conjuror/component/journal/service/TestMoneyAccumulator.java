@@ -0,0 +1,101 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.MoneyAccumulator;
+import java.math.BigDecimal;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestMoneyAccumulator {
+
+  public TestMoneyAccumulator() {
+    super();
+  }
+
+  @Test
+  public void givenAmountsOfGrowingScale_whenAccumulating_shouldWidenScaleAndStayCompact() {
+    final MoneyAccumulator accumulator = new MoneyAccumulator()
+        .add(BigDecimal.ONE)
+        .add(new BigDecimal("0.5"))
+        .subtract(new BigDecimal("0.25"));
+
+    Assertions.assertTrue(accumulator.isCompact());
+    Assertions.assertEquals(new BigDecimal("1.25"), accumulator.toBigDecimal());
+    Assertions.assertEquals(2, accumulator.toBigDecimal().scale());
+    Assertions.assertEquals(new BigDecimal("1.2500"),
+        new MoneyAccumulator(4).add(new BigDecimal("1.25")).toBigDecimal());
+  }
+
+  @Test
+  public void givenOverflowingAmounts_whenAccumulating_shouldFallBackToBigDecimal() {
+    final MoneyAccumulator accumulator = new MoneyAccumulator()
+        .add(BigDecimal.valueOf(Long.MAX_VALUE))
+        .add(BigDecimal.valueOf(Long.MAX_VALUE));
+    Assertions.assertFalse(accumulator.isCompact());
+    Assertions.assertEquals(BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2L)),
+        accumulator.toBigDecimal());
+
+    final MoneyAccumulator widened = new MoneyAccumulator()
+        .add(new BigDecimal("900000000000000000"))
+        .add(new BigDecimal("0.01"));
+    Assertions.assertFalse(widened.isCompact());
+    Assertions.assertEquals(new BigDecimal("900000000000000000.01"), widened.toBigDecimal());
+
+    final MoneyAccumulator precise = new MoneyAccumulator()
+        .add(new BigDecimal("0.1234567890123456789"))
+        .add(BigDecimal.ONE);
+    Assertions.assertFalse(precise.isCompact());
+    Assertions.assertEquals(new BigDecimal("1.1234567890123456789"), precise.toBigDecimal());
+  }
+
+  @Test
+  public void givenNegativeScale_whenAccumulating_shouldKeepExactValue() {
+    final MoneyAccumulator accumulator = new MoneyAccumulator()
+        .add(new BigDecimal("1E+3"))
+        .subtract(new BigDecimal("0.5"));
+
+    Assertions.assertFalse(accumulator.isCompact());
+    Assertions.assertEquals(0, new BigDecimal("999.5").compareTo(accumulator.toBigDecimal()));
+    Assertions.assertEquals(0,
+        new BigDecimal("1E+3").compareTo(new MoneyAccumulator(-2).add(new BigDecimal("1E+3")).toBigDecimal()));
+  }
+
+  @Test
+  public void givenBalances_whenConvertingThroughAccumulators_shouldRoundTrip() {
+    final Map<String, BigDecimal> balances = Map.of("EUR", new BigDecimal("10.50"), "USD", BigDecimal.ONE.negate());
+
+    final Map<String, MoneyAccumulator> accumulators = MoneyAccumulator.of(balances);
+    accumulators.get("EUR").add(new BigDecimal("0.25"));
+
+    final Map<String, BigDecimal> result = MoneyAccumulator.toBigDecimals(accumulators);
+    Assertions.assertEquals(new BigDecimal("10.75"), result.get("EUR"));
+    Assertions.assertEquals(BigDecimal.ONE.negate(), result.get("USD"));
+    Assertions.assertTrue(MoneyAccumulator.of(null).isEmpty());
+  }
+}
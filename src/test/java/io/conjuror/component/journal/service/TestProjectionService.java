@@ -0,0 +1,222 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.Balance;
+import io.conjuror.component.journal.data.Journal;
+import io.conjuror.component.journal.data.Journal.State;
+import io.conjuror.component.journal.data.PendingProjection;
+import io.conjuror.component.journal.data.Posting;
+import io.conjuror.component.journal.processor.JournalRequestProcessor;
+import io.conjuror.component.journal.request.AddItemRequest;
+import io.conjuror.component.journal.request.AddItemRequest.Allocation;
+import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import io.conjuror.component.journal.repository.JournalRepository;
+import io.conjuror.component.journal.repository.PostingRepository;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import org.apache.geode.cache.Region;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.NONE,
+    classes = {
+        TestConfiguration.class
+    },
+    properties = {
+        "io.conjuror.projection.asynchronous=true",
+        "io.conjuror.projection.recovery-interval=3600000"
+    }
+)
+public class TestProjectionService {
+
+  private static final Random RANDOM = new Random();
+
+  @Autowired
+  private JournalRequestProcessor journalRequestProcessor;
+
+  @Autowired
+  private ProjectionService projectionService;
+
+  @Autowired
+  private AccountService accountService;
+
+  @Autowired
+  private JournalRepository journalRepository;
+
+  @Autowired
+  private PostingRepository postingRepository;
+
+  @Autowired
+  @Qualifier("pending_projections")
+  private Region<Long, PendingProjection> pendingProjectionRegion;
+
+  public TestProjectionService() {
+    super();
+  }
+
+  @Test
+  public void givenAsynchronousProjection_whenCatchingUp_shouldApplyReleasedJournalsOnce() {
+    final String debtorAccount = this.randomString();
+    final String creditorAccount = this.randomString();
+
+    Long lastSequence = null;
+    for (int index = 0; index < 20; index++) {
+      lastSequence = this.releaseJournal(debtorAccount, creditorAccount, BigDecimal.ONE);
+    }
+
+    this.projectionService.catchUp();
+    Assertions.assertEquals(0L, this.projectionService.lag());
+
+    final Balance debtorBalance = this.accountService.determineBalance(debtorAccount, "EUR");
+    Assertions.assertEquals(0, BigDecimal.valueOf(20L).negate().compareTo(debtorBalance.getAccountBalance()));
+    Assertions.assertEquals(lastSequence, debtorBalance.getLastSynchronizedSequence());
+
+    this.projectionService.catchUp();
+    final Balance creditorBalance = this.accountService.determineBalance(creditorAccount, "EUR");
+    Assertions.assertEquals(0, BigDecimal.valueOf(20L).compareTo(creditorBalance.getAccountBalance()));
+  }
+
+  @Test
+  public void givenFailingProjection_whenProjecting_shouldReleaseClaimForRetry() {
+    final Long sequence = this.registerReleasedJournal();
+    final AccountService accountService = Mockito.mock(AccountService.class);
+    Mockito.doThrow(new IllegalStateException()).doNothing().when(accountService).post(ArgumentMatchers.anyList());
+    final ProjectionService projectionService = this.newProjectionService(accountService);
+
+    Assertions.assertFalse(projectionService.project(List.of(sequence)));
+    Assertions.assertNull(this.pendingProjectionRegion.get(sequence).getClaimedBy());
+
+    Assertions.assertTrue(projectionService.project(List.of(sequence)));
+    Assertions.assertNull(this.pendingProjectionRegion.get(sequence));
+    Mockito.verify(accountService, Mockito.times(2)).post(ArgumentMatchers.anyList());
+  }
+
+  @Test
+  public void givenProjectionClaimedElsewhere_whenProjecting_shouldWaitForClaimToExpire() {
+    final Long sequence = this.registerReleasedJournal();
+    final PendingProjection foreignClaim = PendingProjection.of(sequence).claim(this.randomString());
+    this.pendingProjectionRegion.put(sequence, foreignClaim);
+    final AccountService accountService = Mockito.mock(AccountService.class);
+    final ProjectionService projectionService = this.newProjectionService(accountService);
+
+    Assertions.assertTrue(projectionService.project(List.of(sequence)));
+    Mockito.verify(accountService, Mockito.never()).post(ArgumentMatchers.anyList());
+    Assertions.assertEquals(foreignClaim, this.pendingProjectionRegion.get(sequence));
+
+    final PendingProjection expiredClaim = foreignClaim.claim(foreignClaim.getClaimedBy());
+    expiredClaim.setClaimedAt(expiredClaim.getClaimedAt().minusHours(1L));
+    this.pendingProjectionRegion.put(sequence, expiredClaim);
+
+    Assertions.assertTrue(projectionService.project(List.of(sequence)));
+    Assertions.assertTrue(projectionService.project(List.of(sequence)));
+    Mockito.verify(accountService, Mockito.times(1)).post(ArgumentMatchers.anyList());
+    Assertions.assertNull(this.pendingProjectionRegion.get(sequence));
+  }
+
+  private Long registerReleasedJournal() {
+    final Long sequence = RANDOM.nextLong();
+    final Journal journal = new Journal();
+    journal.setSequence(sequence);
+    journal.setState(State.RELEASED);
+    this.journalRepository.save(journal);
+
+    final String accountReference = this.randomString();
+    final Posting posting = new Posting();
+    posting.setKey(Posting.keyOf(accountReference, sequence));
+    posting.setAccountReference(accountReference);
+    posting.setJournalSequence(sequence);
+    posting.setCurrencyCode("EUR");
+    posting.setAmount(BigDecimal.ONE);
+    posting.setReleased(Boolean.FALSE);
+    this.postingRepository.save(posting);
+
+    this.pendingProjectionRegion.put(sequence, PendingProjection.of(sequence));
+    return sequence;
+  }
+
+  private ProjectionService newProjectionService(final AccountService accountService) {
+    final ProjectionService projectionService = new ProjectionService(accountService, this.postingRepository,
+        this.journalRepository, this.pendingProjectionRegion);
+    ReflectionTestUtils.setField(projectionService, "asynchronous", Boolean.TRUE);
+    ReflectionTestUtils.setField(projectionService, "catchUpTimeout", 0L);
+    ReflectionTestUtils.setField(projectionService, "claimTimeout", 60000L);
+    return projectionService;
+  }
+
+  private Long releaseJournal(final String debtorAccount, final String creditorAccount, final BigDecimal amount) {
+    final LocalDate valueDate = LocalDate.now(Clock.systemUTC());
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(valueDate)
+            .bookingDate(valueDate)
+            .build()
+    );
+
+    final Allocation debtor = new Allocation();
+    debtor.setAccountReference(debtorAccount);
+    debtor.setAmount(amount);
+
+    final Allocation creditor = new Allocation();
+    creditor.setAccountReference(creditorAccount);
+    creditor.setAmount(amount);
+
+    this.journalRequestProcessor.process(
+        sequence,
+        AddItemRequest
+            .create(this.randomString())
+            .source(debtor)
+            .addTarget(creditor)
+            .build()
+    );
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.RELEASE));
+    return sequence;
+  }
+
+  private String randomString() {
+    final byte[] randomBytes = new byte[32];
+    RANDOM.nextBytes(randomBytes);
+    return Base64.getEncoder().encodeToString(randomBytes);
+  }
+}
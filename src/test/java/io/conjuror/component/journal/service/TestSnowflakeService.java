@@ -0,0 +1,121 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.service.SnowflakeService.Block;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.NONE,
+    classes = {
+        TestConfiguration.class
+    }
+)
+public class TestSnowflakeService {
+
+  @Autowired
+  private SnowflakeService snowflakeService;
+
+  public TestSnowflakeService() {
+    super();
+  }
+
+  @Test
+  public void givenConcurrentCallers_whenGeneratingIds_shouldNotIssueDuplicates() throws Exception {
+    final int threadCount = 8;
+    final int idsPerThread = 20000;
+
+    final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+    try {
+      final List<Future<long[]>> futures = new ArrayList<>();
+      for (int thread = 0; thread < threadCount; thread++) {
+        futures.add(executorService.submit(() -> {
+          final long[] ids = new long[idsPerThread];
+          for (int index = 0; index < idsPerThread; index++) {
+            ids[index] = this.snowflakeService.next();
+          }
+          return ids;
+        }));
+      }
+
+      final Set<Long> issued = new HashSet<>();
+      for (final Future<long[]> future : futures) {
+        final long[] ids = future.get();
+        for (int index = 0; index < ids.length; index++) {
+          if (index > 0) {
+            Assertions.assertTrue(ids[index] > ids[index - 1]);
+          }
+          Assertions.assertTrue(issued.add(ids[index]));
+        }
+      }
+      Assertions.assertEquals(threadCount * idsPerThread, issued.size());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void givenReservedBlock_whenGeneratingIds_shouldContinueAfterBlock() {
+    final Block block = this.snowflakeService.reserve(10000);
+    Assertions.assertEquals(10000, block.size());
+
+    for (int index = 1; index < block.size(); index++) {
+      Assertions.assertTrue(block.get(index) > block.get(index - 1));
+    }
+
+    Assertions.assertTrue(this.snowflakeService.next() > block.get(block.size() - 1));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> block.get(block.size()));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> this.snowflakeService.reserve(0));
+  }
+
+  @Test
+  public void givenOversizedBlock_whenReserving_shouldStayWithinDrift() {
+    final int count = 5000000;
+    final Block block = this.snowflakeService.reserve(count);
+    Assertions.assertEquals(count, block.size());
+
+    for (int index = 1; index < block.size(); index++) {
+      Assertions.assertTrue(block.get(index) > block.get(index - 1));
+    }
+    Assertions.assertTrue(
+        block.get(count - 1) < this.snowflakeService.floor(Instant.now(Clock.systemUTC()).plusMillis(1001L)));
+    Assertions.assertTrue(this.snowflakeService.next() > block.get(count - 1));
+  }
+}
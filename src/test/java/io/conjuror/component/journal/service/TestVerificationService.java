@@ -0,0 +1,144 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package io.conjuror.component.journal.service;
+
+import io.conjuror.component.journal.common.VerificationReport;
+import io.conjuror.component.journal.common.VerificationReport.State;
+import io.conjuror.component.journal.data.JournalItem;
+import io.conjuror.component.journal.processor.JournalRequestProcessor;
+import io.conjuror.component.journal.repository.JournalItemRepository;
+import io.conjuror.component.journal.request.AddItemRequest;
+import io.conjuror.component.journal.request.AddItemRequest.Allocation;
+import io.conjuror.component.journal.request.CreateJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest;
+import io.conjuror.component.journal.request.TransitionJournalRequest.Action;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+@SpringBootTest(
+    webEnvironment = WebEnvironment.NONE,
+    classes = {
+        TestConfiguration.class
+    }
+)
+public class TestVerificationService {
+
+  private static final Random RANDOM = new Random();
+
+  @Autowired
+  private JournalRequestProcessor journalRequestProcessor;
+
+  @Autowired
+  private JournalService journalService;
+
+  @Autowired
+  private JournalItemRepository journalItemRepository;
+
+  @Autowired
+  private VerificationService verificationService;
+
+  public TestVerificationService() {
+    super();
+  }
+
+  @Test
+  public void givenAlteredItem_whenSweeping_shouldReportMismatch() throws Exception {
+    final Long intactSequence = this.scheduleJournal();
+    final Long alteredSequence = this.scheduleJournal();
+
+    final VerificationReport intactReport = this.awaitSweep(this.verificationService.startSweep());
+    Assertions.assertEquals(State.COMPLETED, intactReport.getState());
+    Assertions.assertTrue(intactReport.getVerifiedJournals() >= 2L);
+    Assertions.assertFalse(intactReport.getMismatches().contains(intactSequence));
+    Assertions.assertFalse(intactReport.getMismatches().contains(alteredSequence));
+
+    final JournalItem journalItem = this.journalService.findAllItemsByJournal(alteredSequence).get(0);
+    journalItem.setPurpose(this.randomString());
+    this.journalItemRepository.save(journalItem);
+
+    final VerificationReport alteredReport = this.awaitSweep(this.verificationService.startSweep());
+    Assertions.assertEquals(State.COMPLETED, alteredReport.getState());
+    Assertions.assertFalse(alteredReport.getMismatches().contains(intactSequence));
+    Assertions.assertTrue(alteredReport.getMismatches().contains(alteredSequence));
+  }
+
+  private VerificationReport awaitSweep(final Long identifier) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 60000L;
+    VerificationReport report = this.verificationService.findReport(identifier);
+    while (report.getState() == State.RUNNING && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50L);
+      report = this.verificationService.findReport(identifier);
+    }
+    return report;
+  }
+
+  private Long scheduleJournal() {
+    final Long sequence = this.journalRequestProcessor.process(
+        CreateJournalRequest
+            .create(this.randomString(), "EUR")
+            .valueDate(LocalDate.now())
+            .bookingDate(LocalDate.now())
+            .build()
+    );
+
+    for (int index = 0; index < 3; index++) {
+      final Allocation debtor = new Allocation();
+      debtor.setAccountReference(this.randomString());
+      debtor.setAmount(BigDecimal.TEN);
+
+      final Allocation creditor = new Allocation();
+      creditor.setAccountReference(this.randomString());
+      creditor.setAmount(BigDecimal.TEN);
+
+      this.journalRequestProcessor.process(
+          sequence,
+          AddItemRequest
+              .create(this.randomString())
+              .source(debtor)
+              .addTarget(creditor)
+              .purpose(this.randomString())
+              .build()
+      );
+    }
+
+    this.journalRequestProcessor.process(sequence, TransitionJournalRequest.of(Action.SCHEDULE));
+    return sequence;
+  }
+
+  private String randomString() {
+    final byte[] randomBytes = new byte[32];
+    RANDOM.nextBytes(randomBytes);
+    return Base64.getEncoder().encodeToString(randomBytes);
+  }
+}